@@ -0,0 +1,26 @@
+package ai.planit.cancerlibrary;
+
+import java.util.Arrays;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application for the benchmarks which need its beans, with the {@code benchmark} profile.
+ * <p>
+ * A benchmark starts it in a {@code @Setup} method of the trial, given the properties of its parameters, and closes it
+ * in the {@code @TearDown} one.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {}
+
+    /**
+     * @param properties properties in the {@code key=value} form, given as arguments so that they override those of the
+     * configuration files.
+     * @return the context of the started application.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        String[] args = Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new);
+        return new SpringApplicationBuilder(CancerLibraryApp.class).profiles("benchmark").run(args);
+    }
+}
@@ -0,0 +1,91 @@
+package ai.planit.cancerlibrary.config;
+
+import ai.planit.cancerlibrary.BenchmarkApplication;
+import ai.planit.cancerlibrary.security.AuthoritiesConstants;
+import ai.planit.cancerlibrary.security.jwt.JWTFilter;
+import ai.planit.cancerlibrary.security.jwt.TokenProvider;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.context.AbstractSecurityWebApplicationInitializer;
+
+/**
+ * A request for a probe through the security filters, with the bearer token clients send on every request: the
+ * liveness probe goes through the {@code publicResourcesFilterChain}, the health endpoint through the main chain.
+ * <p>
+ * The servlet behind the filters is left out, so only the work of the filters is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SecurityFilterChainBenchmark {
+
+    private static final FilterChain NO_SERVLET = (request, response) -> {};
+
+    @Param({ "/management/health/liveness", "/management/health" })
+    public String path;
+
+    private ConfigurableApplicationContext context;
+
+    private Filter springSecurityFilterChain;
+
+    private String authorization;
+
+    @Setup
+    public void setup() throws IOException, ServletException {
+        context = BenchmarkApplication.start();
+        springSecurityFilterChain = context.getBean(AbstractSecurityWebApplicationInitializer.DEFAULT_FILTER_NAME, Filter.class);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "user",
+            null,
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        authorization = "Bearer " + context.getBean(TokenProvider.class).createToken(authentication, false, "session");
+        if (doFilter().getStatus() != 200) {
+            throw new IllegalStateException("The request of the benchmark is not let through the security filters");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * A new request each time, as the filters keep their state in its attributes.
+     */
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        springSecurityFilterChain.doFilter(request, response, NO_SERVLET);
+        return response;
+    }
+
+    /**
+     * The same request straight to the servlet: the cost of the mock request and response, to subtract from the other.
+     */
+    @Benchmark
+    public MockHttpServletResponse withoutFilters() throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        NO_SERVLET.doFilter(request, response);
+        return response;
+    }
+}
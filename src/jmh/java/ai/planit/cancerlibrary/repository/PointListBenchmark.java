@@ -0,0 +1,74 @@
+package ai.planit.cancerlibrary.repository;
+
+import ai.planit.cancerlibrary.BenchmarkApplication;
+import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.domain.PointSummary;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * A page of points read as managed entities, as {@code GET /api/points} did, against the same page read through the
+ * {@link PointProjectionRepository}, each in a read-only transaction like the endpoint. Run with {@code -PjmhProfilers=gc}
+ * to compare the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PointListBenchmark {
+
+    @Param({ "20", "1000" })
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+
+    private PointRepository pointRepository;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private Pageable pageable;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        pointRepository = context.getBean(PointRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        pageable = PageRequest.of(0, pageSize, Sort.by("id"));
+
+        List<Point> points = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            points.add(new Point().title("Benchmark point " + i).description("Description of the benchmark point " + i));
+        }
+        pointRepository.saveAll(points);
+        if (entities().size() != pageSize || projection().size() != pageSize) {
+            throw new IllegalStateException("The page of the benchmark does not hold " + pageSize + " points");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pointRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public List<Point> entities() {
+        return readOnlyTransaction.execute(status -> pointRepository.findAll(pageable).getContent());
+    }
+
+    @Benchmark
+    public List<PointSummary> projection() {
+        return readOnlyTransaction.execute(status -> pointRepository.findAllFields(PointRepository.FIELDS, pageable).getContent());
+    }
+}
@@ -0,0 +1,48 @@
+package ai.planit.cancerlibrary.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * The authorities of the {@code auth} claim of a token, from the {@link AuthorityRegistry} against new instances for
+ * each token as {@code TokenProvider} created them before. Run with {@code -PjmhProfilers=gc} to compare the bytes
+ * allocated per token; {@code TokenProviderBenchmark} measures the whole resolution of a token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthorityRegistryBenchmark {
+
+    @Param({ AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER })
+    public String claim;
+
+    private AuthorityRegistry authorityRegistry;
+
+    @Setup
+    public void setup() {
+        // The repository is only read by refresh()
+        authorityRegistry = new AuthorityRegistry(null);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> registry() {
+        return authorityRegistry.parse(claim);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> newInstances() {
+        return Arrays
+            .stream(claim.split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,68 @@
+package ai.planit.cancerlibrary.security;
+
+import ai.planit.cancerlibrary.BenchmarkApplication;
+import ai.planit.cancerlibrary.repository.UserRepository;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.core.Authentication;
+
+/**
+ * The authentication of a login, dominated by the verification of the password hash, for several encoders and costs.
+ * <p>
+ * The setup logs in once, which upgrades the hash of the user to the configured encoder and cost, so that the
+ * benchmark verifies a hash of that cost. Argon2 is left out: it needs {@code org.bouncycastle:bcprov}, which the build
+ * does not include.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoginBenchmark {
+
+    /**
+     * The {@code application.security.password-hashing.encoder} and its cost: the strength of bcrypt, or the iterations
+     * of PBKDF2.
+     */
+    @Param({ "bcrypt-10", "bcrypt-12", "pbkdf2-310000" })
+    public String hashing;
+
+    private ConfigurableApplicationContext context;
+
+    private AuthenticationManager authenticationManager;
+
+    @Setup
+    public void setup() {
+        String encoder = hashing.substring(0, hashing.indexOf('-'));
+        String cost = hashing.substring(hashing.indexOf('-') + 1);
+        context =
+            BenchmarkApplication.start(
+                "application.security.password-hashing.encoder=" + encoder,
+                "application.security.password-hashing.bcrypt-strength=" + (encoder.equals("bcrypt") ? cost : "10"),
+                "application.security.password-hashing.pbkdf2-iterations=" + (encoder.equals("pbkdf2") ? cost : "310000")
+            );
+        authenticationManager = context.getBean(AuthenticationManagerBuilder.class).getObject();
+
+        login();
+        String hash = context.getBean(UserRepository.class).findOneByLogin("user").orElseThrow().getPassword();
+        String expected = encoder.equals("bcrypt") ? "{bcrypt}$2a$" + cost + "$" : "{pbkdf2}";
+        if (!hash.startsWith(expected)) {
+            throw new IllegalStateException("The password hash of the benchmark was not upgraded to " + hashing);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("user", "user"));
+    }
+}
@@ -0,0 +1,78 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import ai.planit.cancerlibrary.BenchmarkApplication;
+import ai.planit.cancerlibrary.security.AuthoritiesConstants;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * The {@link JWTFilter} authenticating the same valid token on each request, served from the verified tokens, against
+ * the same filter verifying its signature each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JWTFilterBenchmark {
+
+    private static final FilterChain NO_FILTERS = (request, response) -> {};
+
+    /**
+     * The {@code application.security.jwt.verified-token-cache-size}: {@code 0} verifies the signature of each request.
+     */
+    @Param({ "10000", "0" })
+    public int verifiedTokenCacheSize;
+
+    private ConfigurableApplicationContext context;
+
+    private JWTFilter jwtFilter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() throws IOException, ServletException {
+        context = BenchmarkApplication.start("application.security.jwt.verified-token-cache-size=" + verifiedTokenCacheSize);
+        TokenProvider tokenProvider = context.getBean(TokenProvider.class);
+        jwtFilter = new JWTFilter(tokenProvider, context.getBean(TokenRevocationService.class));
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "user",
+            null,
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        request = new MockHttpServletRequest("GET", "/api/points");
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + tokenProvider.createToken(authentication, false, "session"));
+        response = new MockHttpServletResponse();
+        if (doFilter() == null) {
+            throw new IllegalStateException("The token of the benchmark is not valid");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws IOException, ServletException {
+        jwtFilter.doFilter(request, response, NO_FILTERS);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
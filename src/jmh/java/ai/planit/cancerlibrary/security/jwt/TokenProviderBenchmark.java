@@ -0,0 +1,82 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import ai.planit.cancerlibrary.BenchmarkApplication;
+import ai.planit.cancerlibrary.security.AuthoritiesConstants;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * {@link TokenProvider#resolveAuthentication(String)} for each kind of token a client sends: a valid one, served from
+ * the verified tokens after the first request, an expired one, of which the signature is verified each time, and
+ * garbage, rejected by the {@link TokenSyntax} check before it is even looked up among the verified tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TokenProviderBenchmark {
+
+    @Param({ "valid", "expired", "garbage" })
+    public String kind;
+
+    private ConfigurableApplicationContext context;
+
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        tokenProvider = context.getBean(TokenProvider.class);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "user",
+            null,
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        switch (kind) {
+            case "valid":
+                token = tokenProvider.createToken(authentication, false, "session");
+                break;
+            case "expired":
+                JwtKeyRing.SigningKey signingKey = context.getBean(JwtKeyRing.class).getSigningKey();
+                token =
+                    Jwts
+                        .builder()
+                        .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
+                        .setSubject(authentication.getName())
+                        .claim("auth", AuthoritiesConstants.USER)
+                        .claim("sid", "session")
+                        .signWith(signingKey.getPrivateKey(), JwtKeyRing.ALGORITHM)
+                        .setExpiration(new Date(System.currentTimeMillis() - 60000))
+                        .compact();
+                break;
+            default:
+                // What a client sends when it has lost its token
+                token = "undefined";
+        }
+        if ((resolveAuthentication() != null) != kind.equals("valid")) {
+            throw new IllegalStateException("The " + kind + " token of the benchmark is not resolved as expected");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Authentication resolveAuthentication() {
+        return tokenProvider.resolveAuthentication(token);
+    }
+}
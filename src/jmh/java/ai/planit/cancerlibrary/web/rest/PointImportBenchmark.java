@@ -0,0 +1,90 @@
+package ai.planit.cancerlibrary.web.rest;
+
+import ai.planit.cancerlibrary.BenchmarkApplication;
+import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.repository.PointRepository;
+import ai.planit.cancerlibrary.service.dto.PointBulkResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The points created per second by {@code POST /api/points/_bulk}, written in JDBC batches, against the same points
+ * created one {@code POST /api/points} at a time, each in its own transaction. The controller is called through its
+ * transactional proxy, without the HTTP layer; both read their rows from JSON, as the requests would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PointImportBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private ConfigurableApplicationContext context;
+
+    private PointResource pointResource;
+
+    private PointRepository pointRepository;
+
+    private ObjectReader pointReader;
+
+    private String[] rows;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() throws IOException {
+        context = BenchmarkApplication.start();
+        pointResource = context.getBean(PointResource.class);
+        pointRepository = context.getBean(PointRepository.class);
+        pointReader = context.getBean(ObjectMapper.class).readerFor(Point.class);
+
+        rows = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = "{\"title\":\"Benchmark point " + i + "\",\"description\":\"Description of the benchmark point\"}";
+        }
+        body = (String.join("\n", rows) + "\n").getBytes(StandardCharsets.UTF_8);
+        PointBulkResultDTO result = bulk();
+        if (result.getCreated() != ROWS) {
+            throw new IllegalStateException("The rows of the benchmark are not all created: " + result);
+        }
+    }
+
+    /**
+     * The table is emptied after each iteration, so that every iteration inserts into a table of the same size.
+     */
+    @TearDown(Level.Iteration)
+    public void deletePoints() {
+        pointRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public PointBulkResultDTO bulk() throws IOException {
+        return pointResource.createPoints(new ByteArrayInputStream(body)).getBody();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Point singleRow() throws IOException, URISyntaxException {
+        Point last = null;
+        for (String row : rows) {
+            last = pointResource.createPoint(pointReader.readValue(row), null).getBody();
+        }
+        return last;
+    }
+}
@@ -1,5 +1,9 @@
 package ai.planit.cancerlibrary.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +14,736 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Point point = new Point();
+
+    private final Security security = new Security();
+
+    private final Cache cache = new Cache();
+
+    private final User user = new User();
+
     // jhipster-needle-application-properties-property
+
+    public Point getPoint() {
+        return point;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Point {
+
+        private final Bulk bulk = new Bulk();
+
+        private final WriteBehind writeBehind = new WriteBehind();
+
+        private final Changes changes = new Changes();
+
+        public Bulk getBulk() {
+            return bulk;
+        }
+
+        public WriteBehind getWriteBehind() {
+            return writeBehind;
+        }
+
+        public Changes getChanges() {
+            return changes;
+        }
+
+        public static class Bulk {
+
+            /**
+             * Number of rows written per transaction; keep it a multiple of {@code hibernate.jdbc.batch_size}.
+             */
+            private int chunkSize = 500;
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+        }
+
+        /**
+         * Asynchronous writes of Points, for the requests sent with {@code Prefer: respond-async}: they are appended to
+         * a local journal and written to the database by a background thread, in batches of {@code batchSize} or
+         * every {@code flushIntervalMs}.
+         */
+        public static class WriteBehind {
+
+            private boolean enabled = false;
+
+            /**
+             * Directory of the journal, on a persistent local disk of the instance; required when enabled.
+             */
+            private String journalDirectory;
+
+            /**
+             * Maximum number of operations waiting to be written; beyond it, requests are refused.
+             */
+            private int capacity = 10000;
+
+            private int batchSize = 500;
+
+            private long flushIntervalMs = 200;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getJournalDirectory() {
+                return journalDirectory;
+            }
+
+            public void setJournalDirectory(String journalDirectory) {
+                this.journalDirectory = journalDirectory;
+            }
+
+            public int getCapacity() {
+                return capacity;
+            }
+
+            public void setCapacity(int capacity) {
+                this.capacity = capacity;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public long getFlushIntervalMs() {
+                return flushIntervalMs;
+            }
+
+            public void setFlushIntervalMs(long flushIntervalMs) {
+                this.flushIntervalMs = flushIntervalMs;
+            }
+        }
+
+        /**
+         * Change events published on {@code /topic/points}, coalesced per point and sent every {@code intervalMs}.
+         */
+        public static class Changes {
+
+            private long intervalMs = 250;
+
+            /**
+             * Number of changed points beyond which a single refresh event is sent instead.
+             */
+            private int maxEvents = 1000;
+
+            public long getIntervalMs() {
+                return intervalMs;
+            }
+
+            public void setIntervalMs(long intervalMs) {
+                this.intervalMs = intervalMs;
+            }
+
+            public int getMaxEvents() {
+                return maxEvents;
+            }
+
+            public void setMaxEvents(int maxEvents) {
+                this.maxEvents = maxEvents;
+            }
+        }
+    }
+
+    public static class Security {
+
+        private final PasswordHashing passwordHashing = new PasswordHashing();
+
+        private final Jwt jwt = new Jwt();
+
+        private final RateLimit rateLimit = new RateLimit();
+
+        private final FilterMetrics filterMetrics = new FilterMetrics();
+
+        public PasswordHashing getPasswordHashing() {
+            return passwordHashing;
+        }
+
+        public Jwt getJwt() {
+            return jwt;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public FilterMetrics getFilterMetrics() {
+            return filterMetrics;
+        }
+
+        /**
+         * Password hashing: the encoder of new hashes, the cost of each encoder, and the pool running the logins and
+         * password changes off the request threads.
+         */
+        public static class PasswordHashing {
+
+            /**
+             * Encoder of new hashes, {@code bcrypt}, {@code pbkdf2} or {@code argon2}; hashes of other encoders are
+             * upgraded on login.
+             */
+            private String encoder = "bcrypt";
+
+            private int bcryptStrength = 10;
+
+            private int pbkdf2Iterations = 310000;
+
+            private int argon2MemoryKib = 15360;
+
+            private int argon2Iterations = 2;
+
+            private boolean async = true;
+
+            /**
+             * Number of hashes computed at once, by default the number of processors.
+             */
+            private int threads = Runtime.getRuntime().availableProcessors();
+
+            /**
+             * Number of hashes waiting for a thread; beyond it, requests are refused.
+             */
+            private int queueCapacity = 100;
+
+            public String getEncoder() {
+                return encoder;
+            }
+
+            public void setEncoder(String encoder) {
+                this.encoder = encoder;
+            }
+
+            public int getBcryptStrength() {
+                return bcryptStrength;
+            }
+
+            public void setBcryptStrength(int bcryptStrength) {
+                this.bcryptStrength = bcryptStrength;
+            }
+
+            public int getPbkdf2Iterations() {
+                return pbkdf2Iterations;
+            }
+
+            public void setPbkdf2Iterations(int pbkdf2Iterations) {
+                this.pbkdf2Iterations = pbkdf2Iterations;
+            }
+
+            public int getArgon2MemoryKib() {
+                return argon2MemoryKib;
+            }
+
+            public void setArgon2MemoryKib(int argon2MemoryKib) {
+                this.argon2MemoryKib = argon2MemoryKib;
+            }
+
+            public int getArgon2Iterations() {
+                return argon2Iterations;
+            }
+
+            public void setArgon2Iterations(int argon2Iterations) {
+                this.argon2Iterations = argon2Iterations;
+            }
+
+            public boolean isAsync() {
+                return async;
+            }
+
+            public void setAsync(boolean async) {
+                this.async = async;
+            }
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+
+        /**
+         * JWT signing: the rotation of the ES256 key pairs, and the verification of the HS512 tokens issued before.
+         */
+        public static class Jwt {
+
+            /**
+             * Age of the signing key beyond which a new one is created. The previous keys still verify tokens until
+             * the longest token validity has passed.
+             */
+            private long rotationPeriodSeconds = 604800;
+
+            /**
+             * Interval between the checks for a rotation, which also load the keys created by the other instances. A new key
+             * only signs once it is older than that, so that the other instances verify its tokens.
+             */
+            private long keyRefreshIntervalMs = 60000;
+
+            /**
+             * Whether the HS512 tokens, signed with the {@code jhipster.security.authentication.jwt} secret, are still
+             * accepted; only needed until the tokens issued before the key pairs have expired.
+             */
+            private boolean verifyHmacTokens = true;
+
+            /**
+             * Validity of the refresh tokens of the sessions opened without "remember me"; the others use
+             * {@code jhipster.security.authentication.jwt.token-validity-in-seconds-for-remember-me}.
+             */
+            private long refreshTokenValiditySeconds = 86400;
+
+            /**
+             * Interval between the loads of the sessions revoked by the other instances.
+             */
+            private long revocationRefreshIntervalMs = 5000;
+
+            /**
+             * Number of tokens whose signature was verified kept by each instance, about one per active session; with
+             * {@code 0}, the signature of every request is verified.
+             */
+            private int verifiedTokenCacheSize = 10000;
+
+            public long getRotationPeriodSeconds() {
+                return rotationPeriodSeconds;
+            }
+
+            public void setRotationPeriodSeconds(long rotationPeriodSeconds) {
+                this.rotationPeriodSeconds = rotationPeriodSeconds;
+            }
+
+            public long getKeyRefreshIntervalMs() {
+                return keyRefreshIntervalMs;
+            }
+
+            public void setKeyRefreshIntervalMs(long keyRefreshIntervalMs) {
+                this.keyRefreshIntervalMs = keyRefreshIntervalMs;
+            }
+
+            public boolean isVerifyHmacTokens() {
+                return verifyHmacTokens;
+            }
+
+            public void setVerifyHmacTokens(boolean verifyHmacTokens) {
+                this.verifyHmacTokens = verifyHmacTokens;
+            }
+
+            public long getRefreshTokenValiditySeconds() {
+                return refreshTokenValiditySeconds;
+            }
+
+            public void setRefreshTokenValiditySeconds(long refreshTokenValiditySeconds) {
+                this.refreshTokenValiditySeconds = refreshTokenValiditySeconds;
+            }
+
+            public long getRevocationRefreshIntervalMs() {
+                return revocationRefreshIntervalMs;
+            }
+
+            public void setRevocationRefreshIntervalMs(long revocationRefreshIntervalMs) {
+                this.revocationRefreshIntervalMs = revocationRefreshIntervalMs;
+            }
+
+            public int getVerifiedTokenCacheSize() {
+                return verifiedTokenCacheSize;
+            }
+
+            public void setVerifiedTokenCacheSize(int verifiedTokenCacheSize) {
+                this.verifiedTokenCacheSize = verifiedTokenCacheSize;
+            }
+        }
+
+        /**
+         * Rate limiting of the unauthenticated endpoints doing expensive work, such as hashing passwords: each endpoint
+         * has a budget per client IP and, optionally, per login.
+         */
+        public static class RateLimit {
+
+            private boolean enabled = true;
+
+            /**
+             * Number of clients and logins tracked at once; beyond it, the idle ones are forgotten first.
+             */
+            private int maxKeys = 100000;
+
+            private List<Endpoint> endpoints = new ArrayList<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxKeys() {
+                return maxKeys;
+            }
+
+            public void setMaxKeys(int maxKeys) {
+                this.maxKeys = maxKeys;
+            }
+
+            public List<Endpoint> getEndpoints() {
+                return endpoints;
+            }
+
+            public void setEndpoints(List<Endpoint> endpoints) {
+                this.endpoints = endpoints;
+            }
+
+            public static class Endpoint {
+
+                /**
+                 * Ant pattern of the path of the {@code POST} requests.
+                 */
+                private String path;
+
+                /**
+                 * Field of the JSON body holding the login; empty if the whole body is the login, as for an email.
+                 */
+                private String loginField;
+
+                private final Budget ip = new Budget();
+
+                private final Budget login = new Budget();
+
+                public String getPath() {
+                    return path;
+                }
+
+                public void setPath(String path) {
+                    this.path = path;
+                }
+
+                public String getLoginField() {
+                    return loginField;
+                }
+
+                public void setLoginField(String loginField) {
+                    this.loginField = loginField;
+                }
+
+                public Budget getIp() {
+                    return ip;
+                }
+
+                public Budget getLogin() {
+                    return login;
+                }
+            }
+
+            /**
+             * At most {@code capacity} requests at once, then one more every {@code period-seconds / capacity}; a
+             * capacity of {@code 0} means no limit.
+             */
+            public static class Budget {
+
+                private int capacity;
+
+                private long periodSeconds = 60;
+
+                public int getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(int capacity) {
+                    this.capacity = capacity;
+                }
+
+                public long getPeriodSeconds() {
+                    return periodSeconds;
+                }
+
+                public void setPeriodSeconds(long periodSeconds) {
+                    this.periodSeconds = periodSeconds;
+                }
+            }
+        }
+
+        /**
+         * Timers of the time spent in each filter of the security filter chain; when disabled, the filters are not
+         * wrapped at all.
+         */
+        public static class FilterMetrics {
+
+            private boolean enabled = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Directory of the disk tiers, on a local disk of the instance; required when a cache has one. Their entries do
+         * not survive a restart, as the evictions made meanwhile by the other instances would be missed.
+         */
+        private String diskDirectory;
+
+        /**
+         * Tiers and expiry of the caches, by name. The caches not listed are on the heap only, sized by
+         * {@code jhipster.cache.ehcache}.
+         */
+        private Map<String, Settings> caches = new LinkedHashMap<>();
+
+        private final WarmUp warmUp = new WarmUp();
+
+        private final Invalidation invalidation = new Invalidation();
+
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        public Map<String, Settings> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, Settings> caches) {
+            this.caches = caches;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        /**
+         * The tiers of a cache, from the fastest to the largest: the heap, then off-heap memory and a disk, where the
+         * entries are stored serialized, out of the way of the garbage collector. Once a tier is full, its least
+         * recently used entries move to the next one, or are evicted from the last one.
+         * <p>
+         * Entries expire after {@code timeToLiveSeconds}, or after {@code timeToIdleSeconds} without being read; a
+         * cache has one or the other.
+         */
+        public static class Settings {
+
+            /**
+             * Defaults to {@code jhipster.cache.ehcache.max-entries}.
+             */
+            private Long heapEntries;
+
+            private long offHeapSizeMb = 0;
+
+            private long diskSizeMb = 0;
+
+            /**
+             * Defaults to {@code jhipster.cache.ehcache.time-to-live-seconds}, unless {@code timeToIdleSeconds} is set.
+             */
+            private Long timeToLiveSeconds;
+
+            private long timeToIdleSeconds = 0;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public long getOffHeapSizeMb() {
+                return offHeapSizeMb;
+            }
+
+            public void setOffHeapSizeMb(long offHeapSizeMb) {
+                this.offHeapSizeMb = offHeapSizeMb;
+            }
+
+            public long getDiskSizeMb() {
+                return diskSizeMb;
+            }
+
+            public void setDiskSizeMb(long diskSizeMb) {
+                this.diskSizeMb = diskSizeMb;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public long getTimeToIdleSeconds() {
+                return timeToIdleSeconds;
+            }
+
+            public void setTimeToIdleSeconds(long timeToIdleSeconds) {
+                this.timeToIdleSeconds = timeToIdleSeconds;
+            }
+        }
+
+        /**
+         * How the evictions from the caches reach the other instances: {@code jdbc}, through a table of the database
+         * they share, polled every {@code pollIntervalMs}, or {@code loopback}, within the instance only.
+         */
+        public static class Invalidation {
+
+            private String channel = "jdbc";
+
+            private long pollIntervalMs = 1000;
+
+            public String getChannel() {
+                return channel;
+            }
+
+            public void setChannel(String channel) {
+                this.channel = channel;
+            }
+
+            public long getPollIntervalMs() {
+                return pollIntervalMs;
+            }
+
+            public void setPollIntervalMs(long pollIntervalMs) {
+                this.pollIntervalMs = pollIntervalMs;
+            }
+        }
+
+        /**
+         * Loading of the most recently modified users into the user caches, and of the authorities, once the
+         * application is started and before it is reported ready. The users are read in batches of {@code batchSize},
+         * by {@code threads} threads at most, for {@code timeoutSeconds} at most.
+         */
+        public static class WarmUp {
+
+            /**
+             * Number of users loaded; none when 0.
+             */
+            private int users = 1000;
+
+            private int batchSize = 100;
+
+            private int threads = 4;
+
+            private long timeoutSeconds = 30;
+
+            public int getUsers() {
+                return users;
+            }
+
+            public void setUsers(int users) {
+                this.users = users;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public long getTimeoutSeconds() {
+                return timeoutSeconds;
+            }
+
+            public void setTimeoutSeconds(long timeoutSeconds) {
+                this.timeoutSeconds = timeoutSeconds;
+            }
+        }
+    }
+
+    public static class User {
+
+        private final Bulk bulk = new Bulk();
+
+        private final Purge purge = new Purge();
+
+        public Bulk getBulk() {
+            return bulk;
+        }
+
+        public Purge getPurge() {
+            return purge;
+        }
+
+        public static class Bulk {
+
+            /**
+             * Maximum number of users changed by a request on {@code /api/admin/users/_bulk}, all in one transaction.
+             */
+            private int maxSize = 1000;
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+        }
+
+        public static class Purge {
+
+            /**
+             * Number of not activated users deleted per transaction by the daily purge.
+             */
+            private int chunkSize = 500;
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -1,15 +1,39 @@
 package ai.planit.cancerlibrary.config;
 
+import ai.planit.cancerlibrary.config.cache.CacheInvalidationChannel;
+import ai.planit.cancerlibrary.config.cache.InvalidationBroadcastingCacheManager;
+import ai.planit.cancerlibrary.config.cache.InvalidationBroadcastingCacheManager.InvalidationBroadcastingCache;
+import ai.planit.cancerlibrary.config.cache.JdbcCacheInvalidationChannel;
+import ai.planit.cancerlibrary.config.cache.LoopbackCacheInvalidationChannel;
+import ai.planit.cancerlibrary.management.CacheTierMeters;
+import ai.planit.cancerlibrary.management.EhcacheStatistics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
 import java.time.Duration;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.JCacheCacheMeterBinderProvider;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.jcache.JCacheCache;
 import org.springframework.context.annotation.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
@@ -17,20 +41,140 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final ApplicationProperties.Cache.Settings DEFAULT_SETTINGS = new ApplicationProperties.Cache.Settings();
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
-
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+
+    private final ApplicationProperties.Cache cacheProperties;
+
+    private final EhcacheStatistics ehcacheStatistics = new EhcacheStatistics();
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cacheProperties = applicationProperties.getCache();
+    }
+
+    /**
+     * The JCache manager, created here rather than by Spring Boot to give it the directory of the disk tiers, if any, and
+     * to read the statistics of the tiers of its caches.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> customizers) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        ConfigurationBuilder configuration = ConfigurationBuilder
+            .newConfigurationBuilder()
+            .withClassLoader(getClass().getClassLoader())
+            .withService(ehcacheStatistics);
+        if (cacheProperties.getCaches().values().stream().anyMatch(settings -> settings.getDiskSizeMb() > 0)) {
+            String diskDirectory = cacheProperties.getDiskDirectory();
+            if (diskDirectory == null || diskDirectory.isBlank()) {
+                throw new IllegalStateException("application.cache.disk-directory must be set for the caches with a disk tier");
+            }
+            configuration = configuration.withService(new DefaultPersistenceConfiguration(new File(diskDirectory)));
+        }
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), configuration.build());
+        customizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
+    /**
+     * @param cacheName the name of a cache.
+     * @return the configuration of the cache, from its {@code application.cache.caches} entry if any.
+     */
+    javax.cache.configuration.Configuration<Object, Object> cacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Settings settings = cacheProperties.getCaches().getOrDefault(cacheName, DEFAULT_SETTINGS);
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(
+            settings.getHeapEntries() != null ? settings.getHeapEntries() : ehcache.getMaxEntries()
+        );
+        if (settings.getOffHeapSizeMb() > 0) {
+            resourcePools = resourcePools.offheap(settings.getOffHeapSizeMb(), MemoryUnit.MB);
+        }
+        if (settings.getDiskSizeMb() > 0) {
+            resourcePools = resourcePools.disk(settings.getDiskSizeMb(), MemoryUnit.MB, false);
+        }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+                .withExpiry(expiry(cacheName, settings))
+                .build()
+        );
+    }
+
+    private ExpiryPolicy<Object, Object> expiry(String cacheName, ApplicationProperties.Cache.Settings settings) {
+        if (settings.getTimeToIdleSeconds() > 0) {
+            if (settings.getTimeToLiveSeconds() != null) {
+                throw new IllegalStateException("The cache " + cacheName + " cannot have both a time-to-live and a time-to-idle");
+            }
+            return ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(settings.getTimeToIdleSeconds()));
+        }
+        long timeToLiveSeconds = settings.getTimeToLiveSeconds() != null
+            ? settings.getTimeToLiveSeconds()
+            : ehcache.getTimeToLiveSeconds();
+        return ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    /**
+     * Delivers the evictions through the database the instances share, or within this instance only with the
+     * {@code loopback} channel. The transaction manager is resolved lazily, as it depends on the cache manager.
+     */
+    @Bean
+    public CacheInvalidationChannel cacheInvalidationChannel(
+        JdbcTemplate jdbcTemplate,
+        @Lazy PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper
+    ) {
+        String channel = cacheProperties.getInvalidation().getChannel();
+        switch (channel) {
+            case "jdbc":
+                return new JdbcCacheInvalidationChannel(jdbcTemplate, transactionManager, objectMapper);
+            case "loopback":
+                return new LoopbackCacheInvalidationChannel();
+            default:
+                throw new IllegalStateException("Unavailable cache invalidation channel: " + channel);
+        }
+    }
+
+    /**
+     * Decorates the cache manager of the application, so that the evictions from its caches reach the other instances.
+     * The Hibernate second-level cache uses the JCache manager directly, and is left as it is.
+     */
+    @Bean
+    public static BeanPostProcessor invalidationBroadcastingCacheManagerPostProcessor(ObjectProvider<CacheInvalidationChannel> channel) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager && !(bean instanceof InvalidationBroadcastingCacheManager)) {
+                    return new InvalidationBroadcastingCacheManager((CacheManager) bean, channel.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Binds the cache.* meters of the decorated caches, as for the undecorated ones, and the meters of their tiers.
+     */
+    @Bean
+    public CacheMeterBinderProvider<InvalidationBroadcastingCache> invalidationBroadcastingCacheMeterBinderProvider() {
+        JCacheCacheMeterBinderProvider provider = new JCacheCacheMeterBinderProvider();
+        return (cache, tags) -> {
+            if (!(cache.getTargetCache() instanceof JCacheCache)) {
+                return null;
+            }
+            JCacheCache jCacheCache = (JCacheCache) cache.getTargetCache();
+            return registry -> {
+                provider.getMeterBinder(jCacheCache, tags).bindTo(registry);
+                new CacheTierMeters(jCacheCache.getNativeCache(), ehcacheStatistics, tags).bindTo(registry);
+            };
+        };
     }
 
     @Bean
@@ -38,7 +182,14 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, ai.planit.cancerlibrary.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, ai.planit.cancerlibrary.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, ai.planit.cancerlibrary.service.AccountService.ACCOUNTS_BY_LOGIN_CACHE);
+            createCache(cm, ai.planit.cancerlibrary.domain.Point.class.getName());
             // jhipster-needle-ehcache-add-entry
+            for (String cacheName : cacheProperties.getCaches().keySet()) {
+                if (cm.getCache(cacheName) == null) {
+                    throw new IllegalStateException("application.cache.caches." + cacheName + " does not match any cache");
+                }
+            }
         };
     }
 
@@ -47,8 +198,10 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, cacheConfiguration(cacheName));
         }
+        // Publishes hits, misses and evictions, which the actuator binds to the cache.* Micrometer meters
+        cm.enableStatistics(cacheName, true);
     }
 
     @Autowired(required = false)
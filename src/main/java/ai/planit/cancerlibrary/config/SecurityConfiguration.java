@@ -1,20 +1,30 @@
 package ai.planit.cancerlibrary.config;
 
+import ai.planit.cancerlibrary.management.SecurityFilterMeters;
+import ai.planit.cancerlibrary.management.SecurityMetersService;
 import ai.planit.cancerlibrary.security.*;
 import ai.planit.cancerlibrary.security.jwt.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.filter.CorsFilter;
 import org.zalando.problem.spring.web.advice.security.SecurityProblemSupport;
 import tech.jhipster.config.JHipsterProperties;
@@ -24,63 +34,137 @@ import tech.jhipster.config.JHipsterProperties;
 @Import(SecurityProblemSupport.class)
 public class SecurityConfiguration {
 
+    /**
+     * Served without looking for a token: the client, and the liveness and readiness probes. The full health endpoint
+     * stays in the main chain, as it shows its details to the administrators.
+     */
+    private static final String[] PUBLIC_RESOURCES = {
+        "/index.html",
+        "/app/**",
+        "/i18n/**",
+        "/content/**",
+        "/swagger-ui/**",
+        "/favicon.ico",
+        "/manifest.webapp",
+        "/robots.txt",
+        "/management/health/liveness",
+        "/management/health/readiness",
+    };
+
     private final JHipsterProperties jHipsterProperties;
 
     private final TokenProvider tokenProvider;
 
+    private final TokenRevocationService tokenRevocationService;
+
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
+    private final ApplicationProperties applicationProperties;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final ObjectMapper objectMapper;
+
+    private final SecurityFilterMeters securityFilterMeters;
+
     public SecurityConfiguration(
         TokenProvider tokenProvider,
+        TokenRevocationService tokenRevocationService,
         CorsFilter corsFilter,
         JHipsterProperties jHipsterProperties,
-        SecurityProblemSupport problemSupport
+        SecurityProblemSupport problemSupport,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService,
+        ObjectMapper objectMapper,
+        SecurityFilterMeters securityFilterMeters
     ) {
         this.tokenProvider = tokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.securityMetersService = securityMetersService;
+        this.objectMapper = objectMapper;
+        this.securityFilterMeters = securityFilterMeters;
     }
 
+    /**
+     * Hashes new passwords with the encoder set in {@code application.security.password-hashing.encoder}, prefixing them
+     * with its id, and verifies the hashes of any of the encoders. Hashes without a prefix are bcrypt ones. On login,
+     * hashes of another encoder, or of a lower bcrypt strength, are upgraded by {@link DomainUserDetailsService}.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        ApplicationProperties.Security.PasswordHashing properties = applicationProperties.getSecurity().getPasswordHashing();
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(properties.getBcryptStrength());
+        encoders.put("bcrypt", bcrypt);
+        Pbkdf2PasswordEncoder pbkdf2 = new Pbkdf2PasswordEncoder("", 16, properties.getPbkdf2Iterations(), 256);
+        pbkdf2.setAlgorithm(Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        encoders.put("pbkdf2", pbkdf2);
+        // Argon2 is computed by Bouncy Castle, which is not a dependency of the application
+        if (ClassUtils.isPresent("org.bouncycastle.crypto.generators.Argon2BytesGenerator", getClass().getClassLoader())) {
+            encoders.put("argon2", new Argon2PasswordEncoder(16, 32, 1, properties.getArgon2MemoryKib(), properties.getArgon2Iterations()));
+        }
+        if (!encoders.containsKey(properties.getEncoder())) {
+            throw new IllegalStateException("Unavailable password encoder: " + properties.getEncoder());
+        }
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(properties.getEncoder(), encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
+    }
+
+    /**
+     * The static resources of the client and the probes of the orchestrator, which are public: they only get the
+     * security headers, without resolving a token nor checking authorities.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain publicResourcesFilterChain(HttpSecurity http) throws Exception {
+        securityHeaders(http);
+        // @formatter:off
+        http
+            .requestMatchers()
+            .antMatchers(PUBLIC_RESOURCES)
+        .and()
+            .csrf()
+            .disable()
+            .requestCache()
+            .disable()
+            .anonymous()
+            .disable()
+            .logout()
+            .disable()
+            .sessionManagement()
+            .sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+        return securityFilterMeters.instrument(http.build());
+        // @formatter:on
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        securityHeaders(http);
         // @formatter:off
         http
             .csrf()
             .disable()
             .addFilterBefore(corsFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(rateLimitFilter(), UsernamePasswordAuthenticationFilter.class)
             .exceptionHandling()
                 .authenticationEntryPoint(problemSupport)
                 .accessDeniedHandler(problemSupport)
-        .and()
-            .headers()
-            .contentSecurityPolicy(jHipsterProperties.getSecurity().getContentSecurityPolicy())
-        .and()
-            .referrerPolicy(ReferrerPolicyHeaderWriter.ReferrerPolicy.STRICT_ORIGIN_WHEN_CROSS_ORIGIN)
-        .and()
-            .permissionsPolicy().policy("camera=(), fullscreen=(self), geolocation=(), gyroscope=(), magnetometer=(), microphone=(), midi=(), payment=(), sync-xhr=()")
-        .and()
-            .frameOptions()
-            .sameOrigin()
         .and()
             .sessionManagement()
             .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
         .and()
             .authorizeRequests()
             .antMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-            .antMatchers("/app/**/*.{js,html}").permitAll()
-            .antMatchers("/i18n/**").permitAll()
-            .antMatchers("/content/**").permitAll()
-            .antMatchers("/swagger-ui/**").permitAll()
             .antMatchers("/test/**").permitAll()
             .antMatchers("/h2-console/**").permitAll()
             .antMatchers("/api/authenticate").permitAll()
+            .antMatchers("/api/authenticate/refresh").permitAll()
             .antMatchers("/api/register").permitAll()
             .antMatchers("/api/activate").permitAll()
             .antMatchers("/api/account/reset-password/init").permitAll()
@@ -92,16 +176,34 @@ public class SecurityConfiguration {
             .antMatchers("/management/health/**").permitAll()
             .antMatchers("/management/info").permitAll()
             .antMatchers("/management/prometheus").permitAll()
+            .antMatchers("/management/jwks").permitAll()
             .antMatchers("/management/**").hasAuthority(AuthoritiesConstants.ADMIN)
-        .and()
-            .httpBasic()
         .and()
             .apply(securityConfigurerAdapter());
-        return http.build();
+        return securityFilterMeters.instrument(http.build());
+        // @formatter:on
+    }
+
+    private void securityHeaders(HttpSecurity http) throws Exception {
+        // @formatter:off
+        http
+            .headers()
+            .contentSecurityPolicy(jHipsterProperties.getSecurity().getContentSecurityPolicy())
+        .and()
+            .referrerPolicy(ReferrerPolicyHeaderWriter.ReferrerPolicy.STRICT_ORIGIN_WHEN_CROSS_ORIGIN)
+        .and()
+            .permissionsPolicy().policy("camera=(), fullscreen=(self), geolocation=(), gyroscope=(), magnetometer=(), microphone=(), midi=(), payment=(), sync-xhr=()")
+        .and()
+            .frameOptions()
+            .sameOrigin();
         // @formatter:on
     }
 
+    private RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(applicationProperties.getSecurity().getRateLimit(), securityMetersService, objectMapper);
+    }
+
     private JWTConfigurer securityConfigurerAdapter() {
-        return new JWTConfigurer(tokenProvider);
+        return new JWTConfigurer(tokenProvider, tokenRevocationService);
     }
 }
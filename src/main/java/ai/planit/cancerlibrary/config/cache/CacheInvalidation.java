@@ -0,0 +1,46 @@
+package ai.planit.cancerlibrary.config.cache;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Evictions from a cache, or the clearing of a cache, made by an instance of the application.
+ */
+public class CacheInvalidation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String source;
+
+    private final String cacheName;
+
+    private final Set<?> keys;
+
+    /**
+     * @param source the id of the instance which made the change.
+     * @param cacheName the name of the cache.
+     * @param keys the evicted keys, or {@code null} if the whole cache was cleared.
+     */
+    public CacheInvalidation(String source, String cacheName, Set<?> keys) {
+        this.source = source;
+        this.cacheName = cacheName;
+        this.keys = keys;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public Set<?> getKeys() {
+        return keys;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{source='" + source + "', cacheName='" + cacheName + "', keys=" + keys + "}";
+    }
+}
@@ -0,0 +1,15 @@
+package ai.planit.cancerlibrary.config.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries the {@link CacheInvalidation}s between the instances of the application.
+ * <p>
+ * An implementation delivers each invalidation to the listeners of every instance, including the one which published
+ * it: the listeners ignore their own invalidations.
+ */
+public interface CacheInvalidationChannel {
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,218 @@
+package ai.planit.cancerlibrary.config.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A {@link CacheManager} whose caches broadcast their evictions to the other instances of the application, over a
+ * {@link CacheInvalidationChannel}, and apply the evictions received from them.
+ * <p>
+ * The caches of each instance are only a near cache of the database: the entries are not replicated, an instance which
+ * misses reads the database again. The local eviction is immediate, as before; within a transaction, it is repeated
+ * once the transaction completes, as this instance may have cached the old data again in the meantime, and the
+ * broadcast is only sent then, so that the other instances do not read the old data again before it is committed,
+ * with all the keys evicted from a cache by the transaction in one invalidation.
+ */
+public class InvalidationBroadcastingCacheManager implements CacheManager {
+
+    private final Logger log = LoggerFactory.getLogger(InvalidationBroadcastingCacheManager.class);
+
+    private final CacheManager target;
+
+    private final CacheInvalidationChannel channel;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<String, InvalidationBroadcastingCache> caches = new ConcurrentHashMap<>();
+
+    public InvalidationBroadcastingCacheManager(CacheManager target, CacheInvalidationChannel channel) {
+        this.target = target;
+        this.channel = channel;
+        channel.subscribe(this::apply);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        InvalidationBroadcastingCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache targetCache = target.getCache(name);
+        if (targetCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new InvalidationBroadcastingCache(targetCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return target.getCacheNames();
+    }
+
+    /**
+     * @return the id of this instance in the invalidations it publishes.
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private void apply(CacheInvalidation invalidation) {
+        if (instanceId.equals(invalidation.getSource())) {
+            return;
+        }
+        Cache cache = target.getCache(invalidation.getCacheName());
+        if (cache == null) {
+            return;
+        }
+        log.debug("Applying {}", invalidation);
+        evict(cache, invalidation.getKeys());
+    }
+
+    /**
+     * Evict the keys from the cache, or clear it if they are {@code null}.
+     */
+    private static void evict(Cache cache, Set<?> keys) {
+        if (keys == null) {
+            cache.clear();
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
+
+    private void broadcast(String cacheName, Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            channel.publish(new CacheInvalidation(instanceId, cacheName, key != null ? Set.of(key) : null));
+            return;
+        }
+        PendingInvalidations pending = (PendingInvalidations) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingInvalidations();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(cacheName, key);
+    }
+
+    /**
+     * The evictions made by the current transaction, made again and published once it completes.
+     */
+    private class PendingInvalidations implements TransactionSynchronization {
+
+        /**
+         * The evicted keys by cache name, {@code null} for a cleared cache.
+         */
+        private final Map<String, Set<Object>> keys = new LinkedHashMap<>();
+
+        void add(String cacheName, Object key) {
+            if (key == null) {
+                keys.put(cacheName, null);
+            } else if (!keys.containsKey(cacheName) || keys.get(cacheName) != null) {
+                keys.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).add(key);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationBroadcastingCacheManager.this);
+            keys.forEach((cacheName, cacheKeys) -> {
+                Cache cache = target.getCache(cacheName);
+                if (cache != null) {
+                    evict(cache, cacheKeys);
+                }
+                channel.publish(new CacheInvalidation(instanceId, cacheName, cacheKeys));
+            });
+        }
+    }
+
+    /**
+     * A cache of this instance, which broadcasts its evictions.
+     */
+    public class InvalidationBroadcastingCache implements Cache {
+
+        private final Cache target;
+
+        InvalidationBroadcastingCache(Cache target) {
+            this.target = target;
+        }
+
+        public Cache getTargetCache() {
+            return target;
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return target.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return target.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return target.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            target.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return target.putIfAbsent(key, value);
+        }
+
+        /**
+         * Broadcast even if the key is not cached here: another instance may have it.
+         */
+        @Override
+        public void evict(Object key) {
+            target.evict(key);
+            broadcast(getName(), key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean present = target.evictIfPresent(key);
+            broadcast(getName(), key);
+            return present;
+        }
+
+        @Override
+        public void clear() {
+            target.clear();
+            broadcast(getName(), null);
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean present = target.invalidate();
+            broadcast(getName(), null);
+            return present;
+        }
+    }
+}
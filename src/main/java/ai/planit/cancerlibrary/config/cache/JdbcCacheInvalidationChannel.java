@@ -0,0 +1,199 @@
+package ai.planit.cancerlibrary.config.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * A {@link CacheInvalidationChannel} through the {@code cache_invalidation} table of the database the instances share.
+ * <p>
+ * Each invalidation is inserted in a transaction of its own, as it is usually published once the transaction which
+ * made the change has completed. Every {@code application.cache.invalidation.poll-interval-ms}, each instance reads the
+ * rows following the last one it delivered, and those created since its previous poll minus a margin, which catches the
+ * inserts that committed after a row of a higher id; it delivers the ones it has not delivered yet, so another instance
+ * serves an evicted entry for about one interval at most. The creation dates are given by the clock of the database,
+ * so that the clocks of the instances need not agree. The keys are stored as a JSON array of strings; an invalidation
+ * with other keys clears the whole cache on the other instances.
+ */
+public class JdbcCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+
+    /**
+     * Rows are only read again within {@code POLL_OVERLAP}, or after polls failed for as long.
+     */
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    private static final TypeReference<Set<String>> KEYS_TYPE = new TypeReference<>() {};
+
+    private final Logger log = LoggerFactory.getLogger(JdbcCacheInvalidationChannel.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The rows delivered within the poll overlap, with their creation date.
+     */
+    private final Map<Long, Instant> delivered = new HashMap<>();
+
+    /**
+     * The time of the database at the previous successful poll, {@code null} before the first one.
+     */
+    private Instant lastPoll;
+
+    /**
+     * The highest id delivered, or the highest one in the table at the first poll.
+     */
+    private long lastDeliveredId;
+
+    public JdbcCacheInvalidationChannel(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Store the invalidation for the other instances; it is lost, with a warning, if the database cannot be reached.
+     */
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        try {
+            String keys = writeKeys(invalidation.getKeys());
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(
+                    "insert into cache_invalidation (source, cache_name, cache_keys, created_date) values (?, ?, ?, localtimestamp)",
+                    invalidation.getSource(),
+                    invalidation.getCacheName(),
+                    keys
+                )
+            );
+        } catch (DataAccessException e) {
+            log.warn("Could not publish {}: {}", invalidation, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Deliver the invalidations stored since the previous poll to the listeners.
+     * <p>
+     * After a failed poll, the next one reads from the previous successful one, so that no invalidation is missed. The
+     * first poll only reads the rows created within the margin.
+     */
+    @Scheduled(fixedDelayString = "${application.cache.invalidation.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        Instant now;
+        List<Map<String, Object>> rows;
+        Instant since;
+        try {
+            now = databaseTime();
+            if (lastPoll == null) {
+                lastDeliveredId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from cache_invalidation", Long.class);
+            }
+            since = (lastPoll != null ? lastPoll : now).minus(POLL_OVERLAP);
+            rows =
+                jdbcTemplate.queryForList(
+                    "select id, source, cache_name, cache_keys, created_date from cache_invalidation " +
+                    "where id > ? or created_date > ? order by id",
+                    lastDeliveredId,
+                    Timestamp.from(since)
+                );
+        } catch (DataAccessException e) {
+            log.warn("Could not read the cache invalidations: {}", e.getMessage());
+            return;
+        }
+        delivered.values().removeIf(createdDate -> !createdDate.isAfter(since));
+        for (Map<String, Object> row : rows) {
+            long id = ((Number) row.get("id")).longValue();
+            if (delivered.putIfAbsent(id, ((Timestamp) row.get("created_date")).toInstant()) != null) {
+                continue;
+            }
+            lastDeliveredId = Math.max(lastDeliveredId, id);
+            CacheInvalidation invalidation = new CacheInvalidation(
+                (String) row.get("source"),
+                (String) row.get("cache_name"),
+                readKeys(row.get("cache_keys"))
+            );
+            for (Consumer<CacheInvalidation> listener : listeners) {
+                listener.accept(invalidation);
+            }
+        }
+        lastPoll = now;
+    }
+
+    /**
+     * Invalidations older than an hour are deleted every hour, at minute 20.
+     */
+    @Scheduled(cron = "0 20 * * * ?")
+    public void removeExpiredInvalidations() {
+        try {
+            Timestamp expiry = Timestamp.from(databaseTime().minus(RETENTION));
+            Integer deleted = transactionTemplate.execute(status ->
+                jdbcTemplate.update("delete from cache_invalidation where created_date < ?", expiry)
+            );
+            log.debug("Deleted {} expired cache invalidations", deleted);
+        } catch (DataAccessException e) {
+            log.warn("Could not delete the expired cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The time of the database, in which the creation dates are given.
+     */
+    private Instant databaseTime() {
+        return jdbcTemplate.queryForObject("select localtimestamp", Timestamp.class).toInstant();
+    }
+
+    private String writeKeys(Set<?> keys) {
+        if (keys == null || !keys.stream().allMatch(String.class::isInstance)) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(keys);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private Set<?> readKeys(Object keys) {
+        if (keys == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(keys.toString(), KEYS_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("Clearing the cache for unreadable cache invalidation keys: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+}
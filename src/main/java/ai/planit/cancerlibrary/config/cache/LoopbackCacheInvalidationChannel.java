@@ -0,0 +1,27 @@
+package ai.planit.cancerlibrary.config.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A {@link CacheInvalidationChannel} within the JVM, which delivers the invalidations synchronously to its listeners.
+ * <p>
+ * It is enough for a single instance, and lets tests run several cache managers as if they were instances.
+ */
+public class LoopbackCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> listener : listeners) {
+            listener.accept(invalidation);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Coherence of the application caches between the instances of the application.
+ */
+package ai.planit.cancerlibrary.config.cache;
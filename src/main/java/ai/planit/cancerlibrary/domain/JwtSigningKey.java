@@ -0,0 +1,124 @@
+package ai.planit.cancerlibrary.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A key pair signing the JWT, identified in the tokens by its {@code kid}.
+ * <p>
+ * The public key is stored X.509-encoded and the private key PKCS#8-encoded then encrypted, both in Base64. A new key is
+ * always inserted, never merged into a key of the same {@code kid} created meanwhile by another instance.
+ */
+@Entity
+@Table(name = "jwt_signing_key")
+public class JwtSigningKey implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 36)
+    @Id
+    @Column(length = 36)
+    private String kid;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "public_key", length = 255, nullable = false)
+    private String publicKey;
+
+    @NotNull
+    @Size(max = 512)
+    @Column(name = "private_key", length = 512, nullable = false)
+    private String privateKey;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Transient
+    private boolean isPersisted;
+
+    public String getKid() {
+        return kid;
+    }
+
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public String getId() {
+        return kid;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !isPersisted;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JwtSigningKey)) {
+            return false;
+        }
+        return Objects.equals(kid, ((JwtSigningKey) o).kid);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(kid);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JwtSigningKey{" +
+            "kid='" + kid + '\'' +
+            ", createdDate='" + createdDate + '\'' +
+            "}";
+    }
+}
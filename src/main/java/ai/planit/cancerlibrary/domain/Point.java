@@ -3,12 +3,15 @@ package ai.planit.cancerlibrary.domain;
 import java.io.Serializable;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Point.
  */
 @Entity
 @Table(name = "point")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Point implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -27,6 +30,10 @@ public class Point implements Serializable {
     @Column(name = "description")
     private String description;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -68,6 +75,19 @@ public class Point implements Serializable {
         this.description = description;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Point version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -94,6 +114,7 @@ public class Point implements Serializable {
             "id=" + getId() +
             ", title='" + getTitle() + "'" +
             ", description='" + getDescription() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
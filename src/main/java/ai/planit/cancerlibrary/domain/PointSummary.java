@@ -0,0 +1,73 @@
+package ai.planit.cancerlibrary.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The fields of a {@link Point} selected in a list, read without loading the entity; the fields that were not selected
+ * are {@code null} and left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PointSummary {
+
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private Long version;
+
+    public PointSummary() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PointSummary(Long id, String title, String description, Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PointSummary{" +
+            "id=" + id +
+            ", title='" + title + "'" +
+            ", description='" + description + "'" +
+            ", version=" + version +
+            "}";
+    }
+}
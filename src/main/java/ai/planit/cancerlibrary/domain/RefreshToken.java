@@ -0,0 +1,139 @@
+package ai.planit.cancerlibrary.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * A refresh token, stored as the SHA-256 hash of the token sent to the client.
+ * <p>
+ * Each refresh returns a new token of the same session and marks the previous one as used; the tokens of a session are
+ * deleted when it is revoked.
+ */
+@Entity
+@Table(name = "jwt_refresh_token")
+public class RefreshToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 64)
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @NotNull
+    @Size(max = 36)
+    @Column(name = "session_id", length = 36, nullable = false)
+    private String sessionId;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(length = 50, nullable = false)
+    private String login;
+
+    @NotNull
+    @Column(name = "remember_me", nullable = false)
+    private boolean rememberMe = false;
+
+    @NotNull
+    @Column(nullable = false)
+    private boolean used = false;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public boolean isRememberMe() {
+        return rememberMe;
+    }
+
+    public void setRememberMe(boolean rememberMe) {
+        this.rememberMe = rememberMe;
+    }
+
+    public boolean isUsed() {
+        return used;
+    }
+
+    public void setUsed(boolean used) {
+        this.used = used;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RefreshToken)) {
+            return false;
+        }
+        return Objects.equals(tokenHash, ((RefreshToken) o).tokenHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(tokenHash);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RefreshToken{" +
+            "sessionId='" + sessionId + '\'' +
+            ", login='" + login + '\'' +
+            ", used='" + used + '\'' +
+            ", expiresAt='" + expiresAt + '\'' +
+            "}";
+    }
+}
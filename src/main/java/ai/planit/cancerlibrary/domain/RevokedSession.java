@@ -0,0 +1,84 @@
+package ai.planit.cancerlibrary.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * A revoked session, whose access tokens are refused until the last of them has expired.
+ */
+@Entity
+@Table(name = "jwt_revoked_session")
+public class RevokedSession implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 36)
+    @Id
+    @Column(name = "session_id", length = 36)
+    private String sessionId;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RevokedSession)) {
+            return false;
+        }
+        return Objects.equals(sessionId, ((RevokedSession) o).sessionId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(sessionId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RevokedSession{" +
+            "sessionId='" + sessionId + '\'' +
+            ", expiresAt='" + expiresAt + '\'' +
+            "}";
+    }
+}
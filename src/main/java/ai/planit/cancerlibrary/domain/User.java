@@ -37,8 +37,8 @@ public class User extends AbstractAuditingEntity implements Serializable {
 
     @JsonIgnore
     @NotNull
-    @Size(min = 60, max = 60)
-    @Column(name = "password_hash", length = 60, nullable = false)
+    @Size(min = 60, max = 255)
+    @Column(name = "password_hash", length = 255, nullable = false)
     private String password;
 
     @Size(max = 50)
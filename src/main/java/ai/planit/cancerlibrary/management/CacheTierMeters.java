@@ -0,0 +1,108 @@
+package ai.planit.cancerlibrary.management;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.core.statistics.TierStatistics;
+
+/**
+ * Publishes the occupancy of an Ehcache cache, which the JCache statistics do not have, and the evictions from each of
+ * its tiers.
+ * <p>
+ * {@code cache.size} is the number of entries of the cache, all held by its last tier. Each tier also has its
+ * {@code cache.tier.entries}, {@code cache.tier.evictions} and, off the heap, {@code cache.tier.bytes}, tagged with the
+ * tier: {@code OnHeap}, {@code OffHeap} or {@code Disk}. The evictions of a tier are entries moved to the next one, but
+ * those of the last tier are lost.
+ */
+public class CacheTierMeters implements MeterBinder {
+
+    public static final String SIZE_METER_NAME = "cache.size";
+    public static final String TIER_ENTRIES_METER_NAME = "cache.tier.entries";
+    public static final String TIER_EVICTIONS_METER_NAME = "cache.tier.evictions";
+    public static final String TIER_BYTES_METER_NAME = "cache.tier.bytes";
+    public static final String TIER_DIMENSION = "tier";
+
+    private final org.ehcache.Cache<?, ?> cache;
+
+    private final Map<String, TierStatistics> tierStatistics;
+
+    private final Iterable<Tag> tags;
+
+    /**
+     * @param cache a JCache cache of the Ehcache provider.
+     * @param statistics the statistics of the caches of its manager.
+     * @param tags the tags of the cache meters, with the name of the cache.
+     */
+    public CacheTierMeters(javax.cache.Cache<?, ?> cache, EhcacheStatistics statistics, Iterable<Tag> tags) {
+        this.cache = cache.unwrap(org.ehcache.Cache.class);
+        this.tierStatistics = statistics.getCacheStatistics(cache.getName()).getTierStatistics();
+        this.tags = Tags.concat(tags, "cache", cache.getName());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        List<TierStatistics> tiers = new ArrayList<>();
+        ResourcePools resourcePools = cache.getRuntimeConfiguration().getResourcePools();
+        for (ResourceType.Core type : ResourceType.Core.values()) {
+            if (resourcePools.getPoolForResource(type) == null) {
+                continue;
+            }
+            String tier = tierName(type);
+            TierStatistics statistics = tierStatistics.get(tier);
+            if (statistics == null) {
+                continue;
+            }
+            // The meters reference the cache, which lives as long as its manager, rather than the statistics
+            tiers.add(statistics);
+            Tags tierTags = Tags.concat(tags, TIER_DIMENSION, tier);
+            Gauge
+                .builder(TIER_ENTRIES_METER_NAME, cache, c -> statistics.getMappings())
+                .tags(tierTags)
+                .description("The number of entries in the tier of the cache")
+                .register(registry);
+            FunctionCounter
+                .builder(TIER_EVICTIONS_METER_NAME, cache, c -> statistics.getEvictions())
+                .tags(tierTags)
+                .description("The number of entries evicted from the tier of the cache, to the next tier if any")
+                .register(registry);
+            if (type != ResourceType.Core.HEAP) {
+                Gauge
+                    .builder(TIER_BYTES_METER_NAME, cache, c -> statistics.getOccupiedByteSize())
+                    .tags(tierTags)
+                    .baseUnit(BaseUnits.BYTES)
+                    .description("The memory or disk space occupied by the tier of the cache")
+                    .register(registry);
+            }
+        }
+        if (!tiers.isEmpty()) {
+            TierStatistics lastTier = tiers.get(tiers.size() - 1);
+            Gauge
+                .builder(SIZE_METER_NAME, cache, c -> lastTier.getMappings())
+                .tags(tags)
+                .description("The number of entries in this cache")
+                .register(registry);
+        }
+    }
+
+    private static String tierName(ResourceType.Core type) {
+        switch (type) {
+            case HEAP:
+                return "OnHeap";
+            case OFFHEAP:
+                return "OffHeap";
+            case DISK:
+                return "Disk";
+            default:
+                throw new IllegalArgumentException("Unknown tier " + type);
+        }
+    }
+}
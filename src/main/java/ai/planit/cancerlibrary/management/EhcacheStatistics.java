@@ -0,0 +1,71 @@
+package ai.planit.cancerlibrary.management;
+
+import org.ehcache.core.spi.service.ServiceFactory;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+import org.ehcache.spi.service.ServiceDependencies;
+import org.ehcache.spi.service.ServiceProvider;
+
+/**
+ * The statistics of the caches of an Ehcache manager, which a manager created through JCache does not expose.
+ * <p>
+ * Given to the configuration of the manager, it starts a {@link Service} along with the services of the manager, which
+ * keeps the {@link StatisticsService} of the manager: the one the JCache statistics are read from.
+ */
+public class EhcacheStatistics implements ServiceCreationConfiguration<EhcacheStatistics.Service, Void> {
+
+    private volatile StatisticsService statisticsService;
+
+    /**
+     * @param cacheName the name of a cache of the manager.
+     * @return the statistics of the cache, with those of each of its tiers.
+     */
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        if (statisticsService == null) {
+            throw new IllegalStateException("The cache manager of " + cacheName + " was not configured with its statistics");
+        }
+        return statisticsService.getCacheStatistics(cacheName);
+    }
+
+    @Override
+    public Class<Service> getServiceType() {
+        return Service.class;
+    }
+
+    @ServiceDependencies(StatisticsService.class)
+    public static class Service implements org.ehcache.spi.service.Service {
+
+        private final EhcacheStatistics configuration;
+
+        Service(EhcacheStatistics configuration) {
+            this.configuration = configuration;
+        }
+
+        @Override
+        public void start(ServiceProvider<org.ehcache.spi.service.Service> serviceProvider) {
+            configuration.statisticsService = serviceProvider.getService(StatisticsService.class);
+        }
+
+        @Override
+        public void stop() {
+            configuration.statisticsService = null;
+        }
+    }
+
+    /**
+     * Registered in {@code META-INF/services}, where Ehcache looks up the factories of its services.
+     */
+    public static class Factory implements ServiceFactory<Service> {
+
+        @Override
+        public Service create(ServiceCreationConfiguration<Service, ?> configuration) {
+            return new Service((EhcacheStatistics) configuration);
+        }
+
+        @Override
+        public Class<Service> getServiceType() {
+            return Service.class;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ai.planit.cancerlibrary.management;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.security.web.DefaultSecurityFilterChain;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times each filter of the security filter chain, as the {@code security.filter} timers tagged with the filter, the
+ * route pattern and the outcome of the request.
+ * <p>
+ * Each timer measures the time spent in its filter only, not in the filters after it nor in the application. The
+ * filters are not wrapped, as some code looks them up by type: a probe is inserted before each of them instead, which
+ * measures the time of the rest of the chain. The route is only known once the request reached a controller, so the
+ * requests refused by the filters are tagged {@code UNKNOWN}. The filters of an asynchronous request are timed on its
+ * first dispatch, and recorded once it completes, with its final status; its async dispatches are not timed. When
+ * {@code application.security.filter-metrics.enabled} is off, the chain is left as it is.
+ */
+@Component
+public class SecurityFilterMeters {
+
+    public static final String FILTER_TIMER_NAME = "security.filter";
+    public static final String FILTER_TIMER_DESCRIPTION = "Time spent in a filter of the security filter chain, excluding the next ones.";
+    public static final String FILTER_TIMER_FILTER_DIMENSION = "filter";
+    public static final String FILTER_TIMER_ROUTE_DIMENSION = "route";
+    public static final String FILTER_TIMER_OUTCOME_DIMENSION = "outcome";
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private static final String TIMES_ATTRIBUTE = SecurityFilterMeters.class.getName() + ".TIMES";
+
+    private final MeterRegistry registry;
+
+    private final boolean enabled;
+
+    public SecurityFilterMeters(MeterRegistry registry, ApplicationProperties applicationProperties) {
+        this.registry = registry;
+        this.enabled = applicationProperties.getSecurity().getFilterMetrics().isEnabled();
+    }
+
+    /**
+     * @param chain a security filter chain.
+     * @return the chain with its filters timed, or the same chain if the timers are disabled.
+     */
+    public DefaultSecurityFilterChain instrument(DefaultSecurityFilterChain chain) {
+        if (!enabled) {
+            return chain;
+        }
+        List<Filter> filters = new ArrayList<>();
+        int count = chain.getFilters().size();
+        for (int i = 0; i < count; i++) {
+            Filter filter = chain.getFilters().get(i);
+            filters.add(new Probe(i, count, filter.getClass().getSimpleName()));
+            filters.add(filter);
+        }
+        // Measures the application, to subtract it from the time of the last filter
+        filters.add(new Probe(count, count, null));
+        return new DefaultSecurityFilterChain(chain.getRequestMatcher(), filters);
+    }
+
+    private void record(String filter, ServletRequest request, ServletResponse response, boolean failed, long nanos) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // An exception going through the filter has not set the status of the response yet
+        Outcome outcome = failed ? Outcome.SERVER_ERROR : Outcome.forStatus(((HttpServletResponse) response).getStatus());
+        Timer
+            .builder(FILTER_TIMER_NAME)
+            .description(FILTER_TIMER_DESCRIPTION)
+            .tag(FILTER_TIMER_FILTER_DIMENSION, filter)
+            .tag(FILTER_TIMER_ROUTE_DIMENSION, route != null ? route.toString() : UNKNOWN_ROUTE)
+            .tag(FILTER_TIMER_OUTCOME_DIMENSION, outcome.name())
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record the time of a filter once the async processing of the request completes, as its status is not set before.
+     */
+    private void recordOnCompletion(String filter, ServletRequest request, ServletResponse response, long nanos) {
+        request
+            .getAsyncContext()
+            .addListener(
+                new AsyncListener() {
+                    private boolean failed;
+
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(filter, request, response, failed, nanos);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {}
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        failed = true;
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                        // Restarting the async processing drops the listeners
+                        event.getAsyncContext().addListener(this);
+                    }
+                }
+            );
+    }
+
+    /**
+     * Measures the time of the rest of the chain from its position, in a request attribute shared by the probes of
+     * the request: the time of a filter is the one of the probe before it, minus the one of the probe after it.
+     */
+    private final class Probe implements Filter {
+
+        private final int index;
+
+        private final int count;
+
+        private final String filter;
+
+        Probe(int index, int count, String filter) {
+            this.index = index;
+            this.count = count;
+            this.filter = filter;
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+            if (request.getDispatcherType() == DispatcherType.ASYNC) {
+                chain.doFilter(request, response);
+                return;
+            }
+            Object outer = null;
+            if (index == 0) {
+                // A forward goes through the chain again: keep the times of the outer request
+                outer = request.getAttribute(TIMES_ATTRIBUTE);
+                request.setAttribute(TIMES_ATTRIBUTE, new long[count + 1]);
+            }
+            long[] times = (long[]) request.getAttribute(TIMES_ATTRIBUTE);
+            boolean failed = true;
+            long start = System.nanoTime();
+            try {
+                chain.doFilter(request, response);
+                failed = false;
+            } finally {
+                times[index] = System.nanoTime() - start;
+                if (index < count) {
+                    long nanos = times[index] - times[index + 1];
+                    if (!failed && request.isAsyncStarted()) {
+                        recordOnCompletion(filter, request, response, nanos);
+                    } else {
+                        record(filter, request, response, failed, nanos);
+                    }
+                }
+                if (index == 0) {
+                    request.setAttribute(TIMES_ATTRIBUTE, outer);
+                }
+            }
+        }
+    }
+}
@@ -13,12 +13,20 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String RATE_LIMITED_METER_NAME = "security.rate-limit.rejected";
+    public static final String RATE_LIMITED_METER_DESCRIPTION = "Indicates the count of the requests refused for exceeding a rate limit.";
+    public static final String RATE_LIMITED_METER_ENDPOINT_DIMENSION = "endpoint";
+    public static final String RATE_LIMITED_METER_KEY_DIMENSION = "key";
+
+    private final MeterRegistry registry;
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
+        this.registry = registry;
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
@@ -48,4 +56,18 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    /**
+     * @param endpoint the path pattern of the rate-limited endpoint.
+     * @param key the budget that was exceeded, {@code ip} or {@code login}.
+     */
+    public void trackRateLimited(String endpoint, String key) {
+        Counter
+            .builder(RATE_LIMITED_METER_NAME)
+            .description(RATE_LIMITED_METER_DESCRIPTION)
+            .tag(RATE_LIMITED_METER_ENDPOINT_DIMENSION, endpoint)
+            .tag(RATE_LIMITED_METER_KEY_DIMENSION, key)
+            .register(registry)
+            .increment();
+    }
 }
@@ -0,0 +1,22 @@
+package ai.planit.cancerlibrary.repository;
+
+import javax.persistence.EntityManager;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Checks of the Hibernate dialect, for the custom repository implementations using SQL that only some databases support.
+ */
+final class Dialects {
+
+    private Dialects() {}
+
+    /**
+     * @return whether the database is PostgreSQL, in any version Hibernate has a dialect for.
+     */
+    static boolean isPostgreSql(EntityManager entityManager) {
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        return dialect instanceof PostgreSQL81Dialect;
+    }
+}
@@ -0,0 +1,25 @@
+package ai.planit.cancerlibrary.repository;
+
+import ai.planit.cancerlibrary.domain.JwtSigningKey;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link JwtSigningKey} entity.
+ */
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+    List<JwtSigningKey> findAllByOrderByCreatedDateDesc();
+
+    Optional<JwtSigningKey> findFirstByOrderByCreatedDateDesc();
+
+    @Modifying
+    @Query("delete from JwtSigningKey k where k.createdDate < :date")
+    int deleteByCreatedDateBefore(@Param("date") Instant date);
+}
@@ -0,0 +1,37 @@
+package ai.planit.cancerlibrary.repository;
+
+import ai.planit.cancerlibrary.domain.PointSummary;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Read-only listing of selected fields of the Point entity, without loading entities.
+ */
+public interface PointProjectionRepository {
+    /**
+     * The fields that can be selected, in the order they are returned.
+     */
+    List<String> FIELDS = List.of("id", "title", "description", "version");
+
+    /**
+     * Reads the given fields of a page of points.
+     *
+     * @param fields the fields to read, among {@link #FIELDS}.
+     * @param pageable the pagination information.
+     * @return the page of points, with only the given fields set.
+     */
+    Page<PointSummary> findAllFields(List<String> fields, Pageable pageable);
+
+    /**
+     * Reads the given fields of the points following {@code lastId} in id order, fetching one extra row to know whether
+     * there is a next slice instead of counting.
+     *
+     * @param fields the fields to read, among {@link #FIELDS}; must contain {@code id}.
+     * @param lastId the id of the last point of the previous slice, {@code 0} for the first slice.
+     * @param size the slice size.
+     * @return the slice of points, with only the given fields set.
+     */
+    Slice<PointSummary> findFieldsByIdGreaterThan(List<String> fields, long lastId, int size);
+}
@@ -0,0 +1,110 @@
+package ai.planit.cancerlibrary.repository;
+
+import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.domain.PointSummary;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Implementation of {@link PointProjectionRepository}.
+ * <p>
+ * Only the selected columns are read, as scalar tuples copied into {@link PointSummary}s: no entity is instantiated or
+ * registered in the persistence context, so there are no snapshots to keep for dirty checking and nothing to flush.
+ */
+public class PointProjectionRepositoryImpl implements PointProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    public PointProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<PointSummary> findAllFields(List<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Point> point = query.from(Point.class);
+        query.multiselect(selections(point, fields)).orderBy(QueryUtils.toOrders(pageable.getSort(), point, cb));
+        TypedQuery<Tuple> select = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            select.setFirstResult((int) pageable.getOffset());
+            select.setMaxResults(pageable.getPageSize());
+        }
+        List<PointSummary> content = toSummaries(select.getResultList(), fields);
+        return PageableExecutionUtils.getPage(
+            content,
+            pageable,
+            () -> entityManager.createQuery("select count(point) from Point point", Long.class).getSingleResult()
+        );
+    }
+
+    @Override
+    public Slice<PointSummary> findFieldsByIdGreaterThan(List<String> fields, long lastId, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Point> point = query.from(Point.class);
+        query
+            .multiselect(selections(point, fields))
+            .where(cb.greaterThan(point.get("id"), lastId))
+            .orderBy(cb.asc(point.get("id")));
+        List<PointSummary> content = toSummaries(entityManager.createQuery(query).setMaxResults(size + 1).getResultList(), fields);
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content.remove(size);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    private static List<Selection<?>> selections(Root<Point> point, List<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(point.get(field).alias(field));
+        }
+        return selections;
+    }
+
+    /**
+     * The values of a tuple are set on the DTO by hand: a constructor expression would need every argument selected,
+     * and Hibernate cannot type a {@code null} literal in its place.
+     */
+    private static List<PointSummary> toSummaries(List<Tuple> tuples, List<String> fields) {
+        List<PointSummary> summaries = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            PointSummary summary = new PointSummary();
+            for (int i = 0; i < fields.size(); i++) {
+                switch (fields.get(i)) {
+                    case "id":
+                        summary.setId(tuple.get(i, Long.class));
+                        break;
+                    case "title":
+                        summary.setTitle(tuple.get(i, String.class));
+                        break;
+                    case "description":
+                        summary.setDescription(tuple.get(i, String.class));
+                        break;
+                    case "version":
+                        summary.setVersion(tuple.get(i, Long.class));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown Point field " + fields.get(i));
+                }
+            }
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+}
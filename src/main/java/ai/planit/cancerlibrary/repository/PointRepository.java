@@ -1,7 +1,16 @@
 package ai.planit.cancerlibrary.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import ai.planit.cancerlibrary.domain.Point;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +18,28 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PointRepository extends JpaRepository<Point, Long> {}
+public interface PointRepository
+    extends PointSearchRepository, PointProjectionRepository, PointUpdateRepository, JpaRepository<Point, Long> {
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Reads all the points in id order through a forward-only cursor, fetching {@code EXPORT_FETCH_SIZE} rows per round
+     * trip instead of materializing the whole result. The stream must be consumed, and closed, inside a transaction.
+     * The rows are not put into the second-level cache, which would otherwise lose its hot entries to the export.
+     *
+     * @return the stream of read-only points.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query("select point from Point point order by point.id")
+    Stream<Point> streamAllOrderedById();
+
+    @Query("select point.version from Point point where point.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
@@ -0,0 +1,19 @@
+package ai.planit.cancerlibrary.repository;
+
+import ai.planit.cancerlibrary.domain.Point;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Full-text search over the title and description of the Point entity.
+ */
+public interface PointSearchRepository {
+    /**
+     * Search the points matching all the words of the query, best matches first.
+     *
+     * @param query the words to search for; quoted phrases, {@code or} and {@code -word} are supported on PostgreSQL.
+     * @param pageable the pagination information; its sort is ignored in favour of the rank.
+     * @return the page of matching points.
+     */
+    Page<Point> search(String query, Pageable pageable);
+}
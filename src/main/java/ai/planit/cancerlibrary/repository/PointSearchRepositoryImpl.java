@@ -0,0 +1,95 @@
+package ai.planit.cancerlibrary.repository;
+
+import ai.planit.cancerlibrary.domain.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Implementation of {@link PointSearchRepository}.
+ * <p>
+ * On PostgreSQL, the query runs against the GIN-indexed {@code point.search_vector} column and results are ranked with
+ * {@code ts_rank_cd}, title matches weighing more than description matches. Other databases, which don't have that
+ * column, fall back to a case-insensitive {@code LIKE} on every word, ordered by id.
+ */
+public class PointSearchRepositoryImpl implements PointSearchRepository {
+
+    private static final String FULL_TEXT_SELECT =
+        "select p.id, p.title, p.description, p.version from point p, websearch_to_tsquery('simple', :query) q " +
+        "where p.search_vector @@ q order by ts_rank_cd(p.search_vector, q) desc, p.id";
+
+    private static final String FULL_TEXT_COUNT =
+        "select count(*) from point p where p.search_vector @@ websearch_to_tsquery('simple', :query)";
+
+    private final EntityManager entityManager;
+
+    private volatile Boolean fullTextSupported;
+
+    public PointSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<Point> search(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            return Page.empty(pageable);
+        }
+        if (isFullTextSupported()) {
+            return searchFullText(query, pageable);
+        }
+        return searchLike(query, pageable);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Page<Point> searchFullText(String query, Pageable pageable) {
+        Query select = entityManager.createNativeQuery(FULL_TEXT_SELECT, Point.class).setParameter("query", query);
+        List<Point> content = page(select, pageable).getResultList();
+        return PageableExecutionUtils.getPage(
+            content,
+            pageable,
+            () -> ((Number) entityManager.createNativeQuery(FULL_TEXT_COUNT).setParameter("query", query).getSingleResult()).longValue()
+        );
+    }
+
+    private Page<Point> searchLike(String query, Pageable pageable) {
+        List<String> words = Arrays.asList(query.trim().toLowerCase(Locale.ROOT).split("\\s+"));
+        List<String> conditions = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            conditions.add(
+                "(lower(point.title) like :word" + i + " escape '\\' or lower(point.description) like :word" + i + " escape '\\')"
+            );
+        }
+        String where = " where " + String.join(" and ", conditions);
+        TypedQuery<Point> select = entityManager.createQuery("select point from Point point" + where + " order by point.id", Point.class);
+        TypedQuery<Long> count = entityManager.createQuery("select count(point) from Point point" + where, Long.class);
+        for (int i = 0; i < words.size(); i++) {
+            String pattern = "%" + words.get(i).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            select.setParameter("word" + i, pattern);
+            count.setParameter("word" + i, pattern);
+        }
+        List<Point> content = page(select, pageable).getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, count::getSingleResult);
+    }
+
+    private boolean isFullTextSupported() {
+        if (fullTextSupported == null) {
+            fullTextSupported = Dialects.isPostgreSql(entityManager);
+        }
+        return fullTextSupported;
+    }
+
+    private static <Q extends Query> Q page(Q query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query;
+    }
+}
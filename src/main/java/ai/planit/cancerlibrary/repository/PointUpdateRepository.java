@@ -0,0 +1,20 @@
+package ai.planit.cancerlibrary.repository;
+
+import ai.planit.cancerlibrary.domain.Point;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Single-statement updates of the Point entity, without loading it first.
+ */
+public interface PointUpdateRepository {
+    /**
+     * Updates the point with the id of the given one, and increments its version, in one statement.
+     *
+     * @param point the id and the new values of the point.
+     * @param partial whether the {@code null} values of {@code point} are left unchanged instead of being written.
+     * @param versions the versions the point must have for the update to apply, or {@code null} for any version.
+     * @return the updated point, detached, or empty if there is no point with that id and one of the versions.
+     */
+    Optional<Point> update(Point point, boolean partial, Collection<Long> versions);
+}
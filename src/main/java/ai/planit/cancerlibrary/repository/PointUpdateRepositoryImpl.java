@@ -0,0 +1,114 @@
+package ai.planit.cancerlibrary.repository;
+
+import ai.planit.cancerlibrary.domain.Point;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Implementation of {@link PointUpdateRepository}.
+ * <p>
+ * On PostgreSQL, the {@code UPDATE} returns the updated row itself, so an update costs a single round trip. Other
+ * databases read the row back with a second query. As the statement bypasses the persistence context, a managed copy
+ * of the point is detached and its second-level cache entry is evicted, again once the transaction is over so that a
+ * concurrent reader cannot put the previous state back.
+ */
+public class PointUpdateRepositoryImpl implements PointUpdateRepository {
+
+    private static final String RETURNING = " returning id, title, description, version";
+
+    private static final String SELECT = "select id, title, description, version from point where id = :id";
+
+    private final EntityManager entityManager;
+
+    private volatile Boolean returningSupported;
+
+    public PointUpdateRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Point> update(Point point, boolean partial, Collection<Long> versions) {
+        Long id = point.getId();
+        StringBuilder sql = new StringBuilder("update point set ");
+        if (!partial || point.getTitle() != null) {
+            sql.append("title = :title, ");
+        }
+        if (!partial || point.getDescription() != null) {
+            sql.append("description = :description, ");
+        }
+        sql.append("version = version + 1 where id = :id");
+        if (versions != null) {
+            sql.append(" and version in (:versions)");
+        }
+        // Pending changes must reach the database first, and the managed copy must not hide the new state afterwards
+        entityManager.flush();
+        detach(id);
+
+        List<?> rows;
+        if (isReturningSupported()) {
+            rows = bind(entityManager.createNativeQuery(sql.append(RETURNING).toString()), point, partial, versions).getResultList();
+        } else {
+            Query update = bind(entityManager.createNativeQuery(sql.toString()), point, partial, versions);
+            update.unwrap(NativeQuery.class).addSynchronizedEntityClass(Point.class);
+            rows = update.executeUpdate() == 0 ? List.of() : entityManager.createNativeQuery(SELECT).setParameter("id", id).getResultList();
+        }
+        evict(id);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        return Optional.of(
+            new Point()
+                .id(((Number) row[0]).longValue())
+                .title((String) row[1])
+                .description((String) row[2])
+                .version(((Number) row[3]).longValue())
+        );
+    }
+
+    private static Query bind(Query query, Point point, boolean partial, Collection<Long> versions) {
+        query.setParameter("id", point.getId());
+        if (!partial || point.getTitle() != null) {
+            query.setParameter("title", point.getTitle());
+        }
+        if (!partial || point.getDescription() != null) {
+            query.setParameter("description", point.getDescription());
+        }
+        if (versions != null) {
+            query.setParameter("versions", versions);
+        }
+        return query;
+    }
+
+    private void detach(Long id) {
+        // Returns the managed copy if there is one, or else an uninitialized proxy, without querying the database
+        entityManager.detach(entityManager.getReference(Point.class, id));
+    }
+
+    private void evict(Long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Point.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        entityManager.getEntityManagerFactory().getCache().evict(Point.class, id);
+                    }
+                }
+            );
+        }
+    }
+
+    private boolean isReturningSupported() {
+        if (returningSupported == null) {
+            returningSupported = Dialects.isPostgreSql(entityManager);
+        }
+        return returningSupported;
+    }
+}
@@ -0,0 +1,37 @@
+package ai.planit.cancerlibrary.repository;
+
+import ai.planit.cancerlibrary.domain.RefreshToken;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RefreshToken} entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+    /**
+     * Mark a token as used, unless it already is: of concurrent refreshes with the same token, only one succeeds.
+     *
+     * @return {@code 1} if the token was marked, {@code 0} otherwise.
+     */
+    @Modifying
+    @Query("update RefreshToken t set t.used = true where t.tokenHash = :tokenHash and t.used = false")
+    int markUsed(@Param("tokenHash") String tokenHash);
+
+    @Query("select distinct t.sessionId from RefreshToken t where t.login in :logins")
+    List<String> findSessionIdsByLoginIn(@Param("logins") Collection<String> logins);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") String sessionId);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :date")
+    int deleteByExpiresAtBefore(@Param("date") Instant date);
+}
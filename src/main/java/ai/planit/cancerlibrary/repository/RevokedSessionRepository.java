@@ -0,0 +1,22 @@
+package ai.planit.cancerlibrary.repository;
+
+import ai.planit.cancerlibrary.domain.RevokedSession;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RevokedSession} entity.
+ */
+@Repository
+public interface RevokedSessionRepository extends JpaRepository<RevokedSession, String> {
+    List<RevokedSession> findAllByCreatedDateAfterAndExpiresAtAfter(Instant createdDate, Instant expiresAt);
+
+    @Modifying
+    @Query("delete from RevokedSession s where s.expiresAt < :date")
+    int deleteByExpiresAtBefore(@Param("date") Instant date);
+}
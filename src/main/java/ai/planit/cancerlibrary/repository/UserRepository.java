@@ -2,12 +2,16 @@ package ai.planit.cancerlibrary.repository;
 
 import ai.planit.cancerlibrary.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -20,6 +24,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
+
+    @Query(
+        "select u from User u where u.activated = false and u.activationKey is not null and u.createdDate < :date and u.id > :afterId" +
+        " order by u.id"
+    )
+    List<User> findNotActivatedUsersCreatedBefore(@Param("date") Instant date, @Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "delete from User u where u.id between :firstId and :lastId" +
+        " and u.activated = false and u.activationKey is not null and u.createdDate < :date"
+    )
+    int deleteNotActivatedUsers(@Param("date") Instant date, @Param("firstId") long firstId, @Param("lastId") long lastId);
     Optional<User> findOneByResetKey(String resetKey);
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
@@ -33,4 +50,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    @Query("select u.login from User u where u.activated = true order by u.lastModifiedDate desc nulls last")
+    List<String> findLoginsOfRecentlyModifiedUsers(Pageable pageable);
+
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByLoginIn(Collection<String> logins);
+
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByIdIn(Collection<Long> ids);
+
+    List<User> findAllByLoginIn(Collection<String> logins);
+
+    @Query("select u from User u where lower(u.email) in :emails")
+    List<User> findAllByLowercaseEmailIn(@Param("emails") Collection<String> emails);
 }
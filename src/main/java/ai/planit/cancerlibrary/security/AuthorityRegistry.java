@@ -0,0 +1,88 @@
+package ai.planit.cancerlibrary.security;
+
+import ai.planit.cancerlibrary.domain.Authority;
+import ai.planit.cancerlibrary.repository.AuthorityRepository;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Canonical {@link GrantedAuthority} instances, shared by all the authentications instead of being created for each.
+ * <p>
+ * The authorities of the database are loaded by the cache warm-up, on startup. They are only added or removed by the
+ * Liquibase changelogs, which run before it, so that load is enough; a name that is not known yet still gets its instance
+ * on first use. The lists parsed from the {@code auth} claim of the tokens are kept too, as there are only a few distinct
+ * combinations of authorities.
+ */
+@Component
+public class AuthorityRegistry {
+
+    private static final int MAX_CLAIMS = 1024;
+
+    private final Logger log = LoggerFactory.getLogger(AuthorityRegistry.class);
+
+    private final AuthorityRepository authorityRepository;
+
+    private final Map<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+
+    private final Map<String, List<GrantedAuthority>> claims = new ConcurrentHashMap<>();
+
+    public AuthorityRegistry(AuthorityRepository authorityRepository) {
+        this.authorityRepository = authorityRepository;
+    }
+
+    /**
+     * Reload the authorities from the database.
+     */
+    public void refresh() {
+        Set<String> names;
+        try {
+            names = authorityRepository.findAll().stream().map(Authority::getName).collect(Collectors.toSet());
+        } catch (DataAccessException e) {
+            log.warn("Could not load the authorities, they will be registered on first use: {}", e.getMessage());
+            return;
+        }
+        authorities.keySet().retainAll(names);
+        names.forEach(this::get);
+        claims.clear();
+        log.debug("Registered authorities {}", names);
+    }
+
+    /**
+     * @param name the name of an authority.
+     * @return the shared instance of the authority.
+     */
+    public GrantedAuthority get(String name) {
+        return authorities.computeIfAbsent(name, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * @param claim a comma-separated list of authority names, as found in tokens.
+     * @return an immutable list of the shared instances of the authorities, the same for equal claims.
+     */
+    public List<GrantedAuthority> parse(String claim) {
+        List<GrantedAuthority> parsed = claims.get(claim);
+        if (parsed != null) {
+            return parsed;
+        }
+        parsed =
+            Arrays
+                .stream(claim.split(","))
+                .filter(auth -> !auth.trim().isEmpty())
+                .map(this::get)
+                .collect(Collectors.toUnmodifiableList());
+        if (claims.size() < MAX_CLAIMS) {
+            claims.putIfAbsent(claim, parsed);
+        }
+        return parsed;
+    }
+}
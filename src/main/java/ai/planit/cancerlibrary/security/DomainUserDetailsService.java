@@ -8,26 +8,33 @@ import java.util.stream.Collectors;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Authenticate a user from the database.
+ * Authenticate a user from the database, and upgrade the hash of their password on login when it is outdated.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final AuthorityRegistry authorityRegistry;
+
+    private final CacheManager cacheManager;
+
+    public DomainUserDetailsService(UserRepository userRepository, AuthorityRegistry authorityRegistry, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.authorityRegistry = authorityRegistry;
+        this.cacheManager = cacheManager;
     }
 
     @Override
@@ -49,6 +56,22 @@ public class DomainUserDetailsService implements UserDetailsService {
             .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
     }
 
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        log.debug("Upgrading the password hash of {}", userDetails.getUsername());
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                user.setPassword(newPassword);
+                Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+                if (user.getEmail() != null) {
+                    Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+                }
+            });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
+    }
+
     private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
@@ -57,7 +80,7 @@ public class DomainUserDetailsService implements UserDetailsService {
             .getAuthorities()
             .stream()
             .map(Authority::getName)
-            .map(SimpleGrantedAuthority::new)
+            .map(authorityRegistry::get)
             .collect(Collectors.toList());
         return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities);
     }
@@ -0,0 +1,81 @@
+package ai.planit.cancerlibrary.security;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the work dominated by password hashing, logins and password changes, off the request threads.
+ * <p>
+ * Hashing is deliberately slow, so a burst of logins would otherwise hold every request thread. Here at most
+ * {@code application.security.password-hashing.threads} hashes are computed at once, and beyond
+ * {@code queue-capacity} waiting ones, requests are refused with a {@link PasswordHashingUnavailableException}. The
+ * security context of the caller is carried to the hashing thread. The pool is published as the {@code executor.*}
+ * meters tagged {@code name=password.hashing}.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    public static final String METRICS_NAME = "password.hashing";
+
+    private final ExecutorService executor;
+
+    public PasswordHashingExecutor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Security.PasswordHashing properties = applicationProperties.getSecurity().getPasswordHashing();
+        if (properties.isAsync()) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                properties.getThreads(),
+                properties.getThreads(),
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-")
+            );
+            executor = new DelegatingSecurityContextExecutorService(ExecutorServiceMetrics.monitor(meterRegistry, pool, METRICS_NAME));
+        } else {
+            executor = null;
+        }
+    }
+
+    /**
+     * Run a task on a hashing thread, or on the calling thread when {@code application.security.password-hashing.async}
+     * is off.
+     *
+     * @param task the task.
+     * @param <T> the type of the result of the task.
+     * @return the result of the task.
+     * @throws PasswordHashingUnavailableException if the queue of the hashing threads is full.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingUnavailableException();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ai.planit.cancerlibrary.security;
+
+/**
+ * Thrown when too many password hashes are waiting to be computed.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingUnavailableException() {
+        super("Too many password verifications in progress, please retry");
+    }
+}
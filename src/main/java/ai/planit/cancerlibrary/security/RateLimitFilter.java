@@ -0,0 +1,299 @@
+package ai.planit.cancerlibrary.security;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.management.SecurityMetersService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+
+/**
+ * Limits the rate of the {@code POST} requests to the endpoints of {@code application.security.rate-limit.endpoints},
+ * with token buckets per client IP and per login, and refuses the requests beyond it with {@code 429 (Too Many Requests)}
+ * and a {@code Retry-After} header.
+ * <p>
+ * The IP is checked first, so that a client over its budget does not even get its body read. The login is read from
+ * the body, which is then replayed to the application. A body too large to be read here is refused with
+ * {@code 413 (Payload Too Large)}, and one without a login with {@code 400 (Bad Request)}, so that no attempt escapes the
+ * budget of its login. Requests refused for their rate are counted by the
+ * {@link SecurityMetersService}. Behind a reverse proxy, {@code server.forward-headers-strategy} must be set for the
+ * client IP to be the one of the client.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BODY_BYTES = 8192;
+
+    private final List<Rule> rules;
+
+    private final TokenBuckets buckets;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(
+        ApplicationProperties.Security.RateLimit properties,
+        SecurityMetersService securityMetersService,
+        ObjectMapper objectMapper
+    ) {
+        this.rules =
+            properties.isEnabled()
+                ? properties.getEndpoints().stream().map(Rule::new).collect(Collectors.toUnmodifiableList())
+                : List.of();
+        this.buckets = new TokenBuckets(properties.getMaxKeys());
+        this.securityMetersService = securityMetersService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Rule rule = match(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long now = System.nanoTime();
+        if (rule.ipCapacity > 0) {
+            long wait = buckets.tryConsume(rule.path + " ip", request.getRemoteAddr(), rule.ipCapacity, rule.ipIntervalNanos, now);
+            if (wait > 0) {
+                reject(response, rule, "ip", wait);
+                return;
+            }
+        }
+        if (rule.loginCapacity > 0) {
+            BodyReplayingRequest replaying = new BodyReplayingRequest(request);
+            if (!replaying.isComplete()) {
+                writeProblem(response, Status.REQUEST_ENTITY_TOO_LARGE, "Request body too large");
+                return;
+            }
+            String login = rule.login(replaying.getBody(), replaying.getCharset(), objectMapper);
+            if (login == null) {
+                writeProblem(response, Status.BAD_REQUEST, "No login in the request body");
+                return;
+            }
+            long wait = buckets.tryConsume(rule.path + " login", login, rule.loginCapacity, rule.loginIntervalNanos, now);
+            if (wait > 0) {
+                reject(response, rule, "login", wait);
+                return;
+            }
+            filterChain.doFilter(replaying, response);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Rule match(HttpServletRequest request) {
+        for (Rule rule : rules) {
+            if (rule.matcher.matches(request)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, Rule rule, String key, long waitNanos) throws IOException {
+        securityMetersService.trackRateLimited(rule.path, key);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        writeProblem(response, Status.TOO_MANY_REQUESTS, "Too many requests, retry later");
+    }
+
+    private void writeProblem(HttpServletResponse response, Status status, String detail) throws IOException {
+        response.setStatus(status.getStatusCode());
+        response.setContentType("application/problem+json");
+        objectMapper.writeValue(response.getOutputStream(), Problem.builder().withStatus(status).withDetail(detail).build());
+    }
+
+    private static final class Rule {
+
+        private final String path;
+
+        private final AntPathRequestMatcher matcher;
+
+        private final String loginField;
+
+        private final int ipCapacity;
+
+        private final long ipIntervalNanos;
+
+        private final int loginCapacity;
+
+        private final long loginIntervalNanos;
+
+        Rule(ApplicationProperties.Security.RateLimit.Endpoint endpoint) {
+            this.path = endpoint.getPath();
+            this.matcher = new AntPathRequestMatcher(endpoint.getPath(), HttpMethod.POST.name());
+            this.loginField = endpoint.getLoginField();
+            this.ipCapacity = endpoint.getIp().getCapacity();
+            this.ipIntervalNanos = interval(endpoint.getIp());
+            this.loginCapacity = endpoint.getLogin().getCapacity();
+            this.loginIntervalNanos = interval(endpoint.getLogin());
+        }
+
+        private static long interval(ApplicationProperties.Security.RateLimit.Budget budget) {
+            return budget.getCapacity() > 0 ? TimeUnit.SECONDS.toNanos(budget.getPeriodSeconds()) / budget.getCapacity() : 0;
+        }
+
+        /**
+         * @return the login sent in the body, lower-cased, or {@code null} if there is none.
+         */
+        String login(byte[] body, Charset charset, ObjectMapper objectMapper) {
+            String login;
+            if (StringUtils.hasText(loginField)) {
+                try {
+                    JsonNode field = objectMapper.readTree(body).path(loginField);
+                    login = field.isTextual() ? field.asText() : null;
+                } catch (IOException e) {
+                    // Not JSON: no login to charge
+                    return null;
+                }
+            } else {
+                login = new String(body, charset);
+            }
+            return StringUtils.hasText(login) ? login.trim().toLowerCase(Locale.ENGLISH) : null;
+        }
+    }
+
+    /**
+     * A request whose body was read up to {@link #MAX_BODY_BYTES}, and is read again from the beginning by the
+     * application.
+     */
+    private static final class BodyReplayingRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private ServletInputStream inputStream;
+
+        BodyReplayingRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            // One byte more than the maximum, to know whether the body is complete
+            this.body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        }
+
+        byte[] getBody() {
+            return body;
+        }
+
+        boolean isComplete() {
+            return body.length <= MAX_BODY_BYTES;
+        }
+
+        /**
+         * @return the charset of the body, UTF-8 if it is not given or not supported.
+         */
+        Charset getCharset() {
+            String encoding = getCharacterEncoding();
+            if (encoding == null) {
+                return StandardCharsets.UTF_8;
+            }
+            try {
+                return Charset.forName(encoding);
+            } catch (IllegalArgumentException e) {
+                // Sent by the client: an illegal or unknown name must not fail the request here
+                return StandardCharsets.UTF_8;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new ReplayingInputStream(body, super.getInputStream());
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            return new BufferedReader(new InputStreamReader(getInputStream(), getCharset()));
+        }
+    }
+
+    /**
+     * The bytes already read from the body, then the rest of the body.
+     */
+    private static final class ReplayingInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream replayed;
+
+        private final ServletInputStream rest;
+
+        ReplayingInputStream(byte[] replayed, ServletInputStream rest) {
+            this.replayed = new ByteArrayInputStream(replayed);
+            this.rest = rest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return replayed.available() > 0 ? replayed.read() : rest.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            return replayed.available() > 0 ? replayed.read(b, off, len) : rest.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return replayed.available() == 0 && rest.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return replayed.available() > 0 || rest.isReady();
+        }
+
+        /**
+         * Registered on the stream of the request, which refuses it unless the request is asynchronous. The replayed
+         * bytes are announced at the latest with the end of the body, as it may already have been read entirely.
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            rest.setReadListener(
+                new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        readListener.onDataAvailable();
+                    }
+
+                    @Override
+                    public void onAllDataRead() throws IOException {
+                        if (replayed.available() > 0) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        readListener.onError(t);
+                    }
+                }
+            );
+        }
+    }
+}
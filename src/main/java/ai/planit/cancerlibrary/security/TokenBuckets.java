@@ -0,0 +1,99 @@
+package ai.planit.cancerlibrary.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets per key, each held in a single {@link AtomicLong} and updated lock-free.
+ * <p>
+ * A bucket is stored as the time at which it will be full again, as in the generic cell rate algorithm: each request
+ * pushes that time one interval further, and is refused if the bucket would then hold more than its capacity. A bucket
+ * that is full again carries no information, so it is dropped when the map reaches its maximum size, by one thread at a
+ * time. The other buckets are never dropped, as the keys are chosen by the clients: a flood of new keys must not give
+ * back their budget to the keys being throttled. While the map is full of them, the new keys of a scope share a single
+ * bucket of that scope.
+ */
+class TokenBuckets {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> overflowBuckets = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final int maxKeys;
+
+    /**
+     * The time at which the first of the buckets left by the last eviction is full again, before which another eviction
+     * would drop nothing; {@code null} if none was left.
+     */
+    private volatile Long nextEviction;
+
+    TokenBuckets(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Take a token from the bucket of a key.
+     *
+     * @param scope what the key is, the endpoint and the kind of key for instance; keys of different scopes are distinct.
+     * @param key the key.
+     * @param capacity the number of tokens of a full bucket.
+     * @param intervalNanos the time to regain one token.
+     * @param now the current time, from {@link System#nanoTime()}.
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until one is available.
+     */
+    long tryConsume(String scope, String key, int capacity, long intervalNanos, long now) {
+        String scopedKey = scope + " " + key;
+        AtomicLong bucket = buckets.get(scopedKey);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict(now);
+            }
+            // Checked without a lock: concurrent new keys may take the map a few keys over its maximum
+            bucket =
+                buckets.size() < maxKeys
+                    ? buckets.computeIfAbsent(scopedKey, k -> new AtomicLong(now))
+                    : overflowBuckets.computeIfAbsent(scope, k -> new AtomicLong(now));
+        }
+        long limit = now + capacity * intervalNanos;
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            if (next > limit) {
+                return next - limit;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void evict(long now) {
+        Long next = nextEviction;
+        if ((next != null && now - next < 0) || !evictionLock.tryLock()) {
+            // Nothing to drop yet, or another thread is dropping it
+            return;
+        }
+        try {
+            Long first = null;
+            for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+                long fullAt = entry.getValue().get();
+                if (fullAt - now <= 0) {
+                    buckets.remove(entry.getKey(), entry.getValue());
+                } else if (first == null || fullAt - first < 0) {
+                    first = fullAt;
+                }
+            }
+            nextEviction = first;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
@@ -9,13 +9,16 @@ public class JWTConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilt
 
     private final TokenProvider tokenProvider;
 
-    public JWTConfigurer(TokenProvider tokenProvider) {
+    private final TokenRevocationService tokenRevocationService;
+
+    public JWTConfigurer(TokenProvider tokenProvider, TokenRevocationService tokenRevocationService) {
         this.tokenProvider = tokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
     public void configure(HttpSecurity http) {
-        JWTFilter customFilter = new JWTFilter(tokenProvider);
+        JWTFilter customFilter = new JWTFilter(tokenProvider, tokenRevocationService);
         http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
     }
 }
@@ -1,6 +1,8 @@
 package ai.planit.cancerlibrary.security.jwt;
 
 import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
@@ -8,12 +10,11 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.GenericFilterBean;
 
 /**
  * Filters incoming requests and installs a Spring Security principal if a header corresponding to a valid user is
- * found.
+ * found, and its session was not revoked.
  */
 public class JWTFilter extends GenericFilterBean {
 
@@ -21,10 +22,15 @@ public class JWTFilter extends GenericFilterBean {
 
     public static final String AUTHORIZATION_TOKEN = "access_token";
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final TokenProvider tokenProvider;
 
-    public JWTFilter(TokenProvider tokenProvider) {
+    private final TokenRevocationService tokenRevocationService;
+
+    public JWTFilter(TokenProvider tokenProvider, TokenRevocationService tokenRevocationService) {
         this.tokenProvider = tokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -32,21 +38,60 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (jwt != null) {
+            Authentication authentication = this.tokenProvider.resolveAuthentication(jwt);
+            if (authentication != null && !isRevoked(authentication)) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
 
+    private boolean isRevoked(Authentication authentication) {
+        return (
+            authentication instanceof JwtAuthenticationToken &&
+            tokenRevocationService.isRevoked(((JwtAuthenticationToken) authentication).getSessionId())
+        );
+    }
+
+    /**
+     * The token is only extracted here: a blank or malformed one is rejected, and counted, by the {@link TokenProvider}.
+     */
     private String resolveToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+        if (bearerToken != null && bearerToken.length() > BEARER_PREFIX.length() && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
+        }
+        return resolveQueryToken(request.getQueryString());
+    }
+
+    /**
+     * Read the token from the query string only, as sent by the websocket clients: {@code getParameter} would parse
+     * the body of form posts.
+     */
+    private static String resolveQueryToken(String queryString) {
+        if (queryString == null) {
+            return null;
         }
-        String jwt = request.getParameter(AUTHORIZATION_TOKEN);
-        if (StringUtils.hasText(jwt)) {
-            return jwt;
+        int start = 0;
+        while (start < queryString.length()) {
+            int end = queryString.indexOf('&', start);
+            if (end < 0) {
+                end = queryString.length();
+            }
+            if (
+                queryString.startsWith(AUTHORIZATION_TOKEN, start) &&
+                start + AUTHORIZATION_TOKEN.length() + 1 < end &&
+                queryString.charAt(start + AUTHORIZATION_TOKEN.length()) == '='
+            ) {
+                String token = queryString.substring(start + AUTHORIZATION_TOKEN.length() + 1, end);
+                try {
+                    return URLDecoder.decode(token, StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+            start = end + 1;
         }
         return null;
     }
@@ -0,0 +1,25 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint publishing the public keys verifying the JWT, as a JSON Web Key Set, on {@code /management/jwks}.
+ */
+@Component
+@Endpoint(id = "jwks")
+public class JwksEndpoint {
+
+    private final JwtKeyRing jwtKeyRing;
+
+    public JwksEndpoint(JwtKeyRing jwtKeyRing) {
+        this.jwtKeyRing = jwtKeyRing;
+    }
+
+    @ReadOperation
+    public Map<String, Object> jwks() {
+        return jwtKeyRing.getJwkSet();
+    }
+}
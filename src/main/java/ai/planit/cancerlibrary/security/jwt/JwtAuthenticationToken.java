@@ -0,0 +1,28 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import java.util.Collection;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * The {@link org.springframework.security.core.Authentication} built from an access token, with the id of the session
+ * the token belongs to, if it was issued with a refresh token.
+ */
+public class JwtAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String sessionId;
+
+    public JwtAuthenticationToken(Object principal, String token, Collection<? extends GrantedAuthority> authorities, String sessionId) {
+        super(principal, token, authorities);
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * @return the id of the session, or {@code null} for a token issued without a refresh token.
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+}
@@ -0,0 +1,336 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.JwtSigningKey;
+import ai.planit.cancerlibrary.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * The ES256 key pairs signing the JWT, shared by the instances of the application through the database.
+ * <p>
+ * The newest key older than {@code application.security.jwt.key-refresh-interval-ms} signs the tokens, so that the
+ * other instances have loaded a key before it is used, and all the keys still in the database verify them, looked up by
+ * the {@code kid} header. Only the very first key signs at once: its {@code kid} is derived from the keys already there,
+ * so that the instances starting together all insert the same key and those losing the race sign with the key of the
+ * winner. The keys are decoded once per {@link #refresh()} rather
+ * than on each verification; a {@code kid} that is not known yet, created by another instance, triggers a reload at
+ * most every ten seconds. The private keys are encrypted
+ * with AES-GCM, under a key derived from the {@code jhipster.security.authentication.jwt} secret.
+ */
+@Component
+public class JwtKeyRing {
+
+    public static final SignatureAlgorithm ALGORITHM = SignatureAlgorithm.ES256;
+
+    private static final long MIN_RELOAD_INTERVAL_MS = 10000;
+
+    private static final String KEY_ENCRYPTION = "AES/GCM/NoPadding";
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_LENGTH = 128;
+
+    private static final int COORDINATE_LENGTH = 32;
+
+    private final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    private final SecretKey keyEncryptionKey;
+
+    private final Duration publicationDelay;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile KeySet keys;
+
+    public JwtKeyRing(
+        JwtSigningKeyRepository jwtSigningKeyRepository,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jwtSigningKeyRepository = jwtSigningKeyRepository;
+        this.publicationDelay = Duration.ofMillis(applicationProperties.getSecurity().getJwt().getKeyRefreshIntervalMs());
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        byte[] secret = ObjectUtils.isEmpty(jwt.getBase64Secret())
+            ? jwt.getSecret().getBytes(StandardCharsets.UTF_8)
+            : Decoders.BASE64.decode(jwt.getBase64Secret());
+        try {
+            keyEncryptionKey = new SecretKeySpec(MessageDigest.getInstance("SHA-256").digest(secret), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the key signing the new tokens, creating it if there is none yet.
+     */
+    public SigningKey getSigningKey() {
+        KeySet current = keys;
+        return (current != null ? current : load(0)).signingKey;
+    }
+
+    /**
+     * @param kid the {@code kid} header of a token.
+     * @return the public key verifying the token, or {@code null} if there is no such key.
+     */
+    public PublicKey getVerificationKey(String kid) {
+        KeySet current = keys;
+        if (current != null) {
+            PublicKey key = current.verificationKeys.get(kid);
+            if (key != null || System.currentTimeMillis() - current.loadedAt < MIN_RELOAD_INTERVAL_MS) {
+                return key;
+            }
+        }
+        try {
+            return load(System.currentTimeMillis() - MIN_RELOAD_INTERVAL_MS).verificationKeys.get(kid);
+        } catch (DataAccessException e) {
+            log.warn("Could not load the JWT signing keys: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the public keys as a JSON Web Key Set, newest first.
+     */
+    public Map<String, Object> getJwkSet() {
+        KeySet current = keys;
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        (current != null ? current : load(0)).verificationKeys.forEach((kid, key) -> jwks.add(toJwk(kid, (ECPublicKey) key)));
+        return Map.of("keys", jwks);
+    }
+
+    /**
+     * Reload the keys from the database.
+     */
+    public void refresh() {
+        load(Long.MAX_VALUE);
+    }
+
+    /**
+     * Create a new key pair, which signs the tokens once it is older than the publication delay and the keys are
+     * reloaded.
+     *
+     * @return the key, as saved.
+     */
+    public JwtSigningKey createKey() {
+        return createKey(UUID.randomUUID().toString());
+    }
+
+    private JwtSigningKey createKey(String kid) {
+        KeyPair keyPair = Keys.keyPairFor(ALGORITHM);
+        JwtSigningKey signingKey = new JwtSigningKey();
+        signingKey.setKid(kid);
+        signingKey.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        signingKey.setPrivateKey(Base64.getEncoder().encodeToString(encrypt(keyPair.getPrivate().getEncoded())));
+        signingKey.setCreatedDate(Instant.now());
+        jwtSigningKeyRepository.saveAndFlush(signingKey);
+        log.info("Created the JWT signing key {}", signingKey.getKid());
+        return signingKey;
+    }
+
+    /**
+     * Load the keys, unless they were loaded since {@code notBefore}.
+     */
+    private synchronized KeySet load(long notBefore) {
+        KeySet current = keys;
+        if (current != null && current.loadedAt >= notBefore) {
+            return current;
+        }
+        List<JwtSigningKey> signingKeys = jwtSigningKeyRepository.findAllByOrderByCreatedDateDesc();
+        SigningKey signingKey = selectSigningKey(signingKeys);
+        if (signingKey == null) {
+            signingKeys = createFirstKey(signingKeys);
+            signingKey = selectSigningKey(signingKeys);
+        }
+        if (signingKey == null) {
+            // The first key was created by an instance with another secret
+            JwtSigningKey created = createKey();
+            signingKey = decodeSigningKey(created);
+            signingKeys = new ArrayList<>(signingKeys);
+            signingKeys.add(0, created);
+        }
+        Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+        for (JwtSigningKey key : signingKeys) {
+            try {
+                verificationKeys.put(key.getKid(), decodePublicKey(key.getPublicKey()));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.warn("Ignoring the invalid JWT signing key {}: {}", key.getKid(), e.getMessage());
+            }
+        }
+        keys = new KeySet(signingKey, Collections.unmodifiableMap(verificationKeys), System.currentTimeMillis());
+        log.debug("Loaded the JWT signing keys {}, signing with {}", verificationKeys.keySet(), signingKey.getKid());
+        return keys;
+    }
+
+    /**
+     * Create the key signing at once when no key can sign, with a {@code kid} derived from the newest key: the instances
+     * doing so at the same time all insert the same row, and those failing on its primary key reload the keys instead.
+     *
+     * @param signingKeys the keys, newest first.
+     * @return the keys, newest first, including the first key.
+     */
+    private List<JwtSigningKey> createFirstKey(List<JwtSigningKey> signingKeys) {
+        String newest = signingKeys.isEmpty() ? "" : signingKeys.get(0).getKid();
+        String kid = UUID.nameUUIDFromBytes(("first JWT signing key after " + newest).getBytes(StandardCharsets.UTF_8)).toString();
+        try {
+            List<JwtSigningKey> keys = new ArrayList<>(signingKeys);
+            keys.add(0, createKey(kid));
+            return keys;
+        } catch (DataIntegrityViolationException e) {
+            log.info("The JWT signing key {} was created by another instance", kid);
+            return jwtSigningKeyRepository.findAllByOrderByCreatedDateDesc();
+        }
+    }
+
+    /**
+     * @param signingKeys the keys, newest first.
+     * @return the newest key older than the publication delay or, if none is, the newest key; {@code null} if no key can
+     * be decrypted.
+     */
+    private SigningKey selectSigningKey(List<JwtSigningKey> signingKeys) {
+        Instant publishedBefore = Instant.now().minus(publicationDelay);
+        SigningKey newest = null;
+        for (JwtSigningKey key : signingKeys) {
+            if (newest != null && key.getCreatedDate().isAfter(publishedBefore)) {
+                continue;
+            }
+            SigningKey signingKey = decodeSigningKey(key);
+            if (signingKey != null && !key.getCreatedDate().isAfter(publishedBefore)) {
+                return signingKey;
+            }
+            if (newest == null) {
+                newest = signingKey;
+            }
+        }
+        return newest;
+    }
+
+    private SigningKey decodeSigningKey(JwtSigningKey key) {
+        try {
+            byte[] encoded = decrypt(Base64.getDecoder().decode(key.getPrivateKey()));
+            return new SigningKey(key.getKid(), KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(encoded)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            // Typically the secret changed: keep verifying with the public key, but sign with a new key
+            log.warn("Could not decrypt the JWT signing key {}: {}", key.getKid(), e.getMessage());
+            return null;
+        }
+    }
+
+    private PublicKey decodePublicKey(String publicKey) throws GeneralSecurityException {
+        return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey)));
+    }
+
+    private byte[] encrypt(byte[] plaintext) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(KEY_ENCRYPTION);
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_LENGTH, iv));
+            byte[] ciphertext = cipher.doFinal(plaintext);
+            return ByteBuffer.allocate(IV_LENGTH + ciphertext.length).put(iv).put(ciphertext).array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] decrypt(byte[] ivAndCiphertext) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(KEY_ENCRYPTION);
+        cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_LENGTH, ivAndCiphertext, 0, IV_LENGTH));
+        return cipher.doFinal(ivAndCiphertext, IV_LENGTH, ivAndCiphertext.length - IV_LENGTH);
+    }
+
+    private static Map<String, Object> toJwk(String kid, ECPublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM.getValue());
+        jwk.put("kid", kid);
+        jwk.put("x", encodeCoordinate(key.getW().getAffineX()));
+        jwk.put("y", encodeCoordinate(key.getW().getAffineY()));
+        return jwk;
+    }
+
+    private static String encodeCoordinate(BigInteger coordinate) {
+        // Unsigned and left-padded to the size of the field, as RFC 7518 requires
+        byte[] bytes = coordinate.toByteArray();
+        byte[] padded = new byte[COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, padded, COORDINATE_LENGTH - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+
+    /**
+     * The private key signing the tokens, with its {@code kid}.
+     */
+    public static final class SigningKey {
+
+        private final String kid;
+
+        private final PrivateKey privateKey;
+
+        SigningKey(String kid, PrivateKey privateKey) {
+            this.kid = kid;
+            this.privateKey = privateKey;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+    }
+
+    private static final class KeySet {
+
+        private final SigningKey signingKey;
+
+        private final Map<String, PublicKey> verificationKeys;
+
+        private final long loadedAt;
+
+        KeySet(SigningKey signingKey, Map<String, PublicKey> verificationKeys, long loadedAt) {
+            this.signingKey = signingKey;
+            this.verificationKeys = verificationKeys;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.JwtSigningKey;
+import ai.planit.cancerlibrary.repository.JwtSigningKeyRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Rotates the keys of the {@link JwtKeyRing}.
+ * <p>
+ * A new key is created once the newest one is older than {@code application.security.jwt.rotation-period-seconds}.
+ * A key stops signing once its successor is published and loaded, within three refresh intervals of that point, so it
+ * is deleted when the longest-lived token it may have signed has expired.
+ * Instances checking at the same time may each create a key: all of them verify tokens until they are deleted.
+ */
+@Component
+public class JwtKeyRotationService {
+
+    private final Logger log = LoggerFactory.getLogger(JwtKeyRotationService.class);
+
+    private final JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    private final JwtKeyRing jwtKeyRing;
+
+    private final Duration rotationPeriod;
+
+    private final Duration retention;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public JwtKeyRotationService(
+        JwtSigningKeyRepository jwtSigningKeyRepository,
+        JwtKeyRing jwtKeyRing,
+        ApplicationProperties applicationProperties,
+        JHipsterProperties jHipsterProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.jwtSigningKeyRepository = jwtSigningKeyRepository;
+        this.jwtKeyRing = jwtKeyRing;
+        ApplicationProperties.Security.Jwt properties = applicationProperties.getSecurity().getJwt();
+        this.rotationPeriod = Duration.ofSeconds(properties.getRotationPeriodSeconds());
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.retention =
+            rotationPeriod
+                .plusMillis(3 * properties.getKeyRefreshIntervalMs())
+                .plusSeconds(Math.max(jwt.getTokenValidityInSeconds(), jwt.getTokenValidityInSecondsForRememberMe()));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create a new key if the newest one is due for rotation, delete the keys that can no longer have valid tokens, and
+     * then reload the keys, including those created by the other instances, once the changes are committed.
+     * <p>
+     * This is scheduled to run every {@code application.security.jwt.key-refresh-interval-ms}.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.key-refresh-interval-ms:60000}")
+    public void rotateKeys() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            Optional<JwtSigningKey> newest = jwtSigningKeyRepository.findFirstByOrderByCreatedDateDesc();
+            if (newest.isEmpty() || newest.get().getCreatedDate().isBefore(now.minus(rotationPeriod))) {
+                jwtKeyRing.createKey();
+            }
+            int deleted = jwtSigningKeyRepository.deleteByCreatedDateBefore(now.minus(retention));
+            if (deleted > 0) {
+                log.info("Deleted {} expired JWT signing keys", deleted);
+            }
+        });
+        jwtKeyRing.refresh();
+    }
+}
@@ -0,0 +1,118 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The ids of the revoked sessions, with the time until which they are revoked.
+ * <p>
+ * A Bloom filter sits in front of the exact set, so that the lookup of a session that was never revoked, by far the
+ * most common one, only reads a few bits. The filter cannot forget an id: it is rebuilt, sized for the remaining ids,
+ * when expired ones are purged or when it holds more ids than it was sized for. Lookups are lock-free; additions,
+ * which are rare, are serialized with the rebuilds.
+ */
+class RevokedSessions {
+
+    private static final int HASHES = 4;
+
+    private static final int BITS_PER_ENTRY = 16;
+
+    private static final int MIN_ENTRIES = 1024;
+
+    private final Map<String, Long> expirations = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter = new BloomFilter(MIN_ENTRIES);
+
+    /**
+     * @return whether the session is revoked at {@code now}.
+     */
+    boolean contains(String sessionId, long now) {
+        if (!filter.mightContain(sessionId)) {
+            return false;
+        }
+        Long expiresAt = expirations.get(sessionId);
+        return expiresAt != null && now < expiresAt;
+    }
+
+    synchronized void add(String sessionId, long expiresAt) {
+        expirations.merge(sessionId, expiresAt, Math::max);
+        if (expirations.size() > filter.capacity) {
+            rebuild();
+        } else {
+            filter.put(sessionId);
+        }
+    }
+
+    /**
+     * Forget the sessions whose revocation has expired at {@code now}.
+     */
+    synchronized void purge(long now) {
+        if (expirations.values().removeIf(expiresAt -> now >= expiresAt)) {
+            rebuild();
+        }
+    }
+
+    int size() {
+        return expirations.size();
+    }
+
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(MIN_ENTRIES, expirations.size() * 2));
+        expirations.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    private static final class BloomFilter {
+
+        private final int capacity;
+
+        private final AtomicLongArray words;
+
+        private final int bitMask;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            int bits = Integer.highestOneBit(capacity * BITS_PER_ENTRY - 1) << 1;
+            this.words = new AtomicLongArray(bits / Long.SIZE);
+            this.bitMask = bits - 1;
+        }
+
+        /**
+         * Only called under the lock of the {@link RevokedSessions}, so there are no concurrent writes.
+         */
+        void put(String value) {
+            long hash = mix(value.hashCode());
+            for (int i = 0; i < HASHES; i++) {
+                int bit = bit(hash, i);
+                words.set(bit >>> 6, words.get(bit >>> 6) | (1L << bit));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = mix(value.hashCode());
+            for (int i = 0; i < HASHES; i++) {
+                int bit = bit(hash, i);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int bit(long hash, int i) {
+            // Double hashing: the i-th bit is h1 + i * h2, h2 being odd
+            return ((int) hash + i * ((int) (hash >>> 32) | 1)) & bitMask;
+        }
+
+        private static long mix(int value) {
+            // The finalizer of MurmurHash3, spreading the String hash code over 64 bits
+            long hash = value * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            return hash ^ (hash >>> 33);
+        }
+    }
+}
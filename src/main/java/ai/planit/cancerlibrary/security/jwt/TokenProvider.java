@@ -1,6 +1,8 @@
 package ai.planit.cancerlibrary.security.jwt;
 
+import ai.planit.cancerlibrary.config.ApplicationProperties;
 import ai.planit.cancerlibrary.management.SecurityMetersService;
+import ai.planit.cancerlibrary.security.AuthorityRegistry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -11,10 +13,9 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
@@ -27,10 +28,19 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final String SESSION_ID_KEY = "sid";
+
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
+    /**
+     * The HMAC key of the tokens issued before the {@link JwtKeyRing}, which have no {@code kid}.
+     */
     private final Key key;
 
+    private final boolean verifyHmacTokens;
+
+    private final JwtKeyRing jwtKeyRing;
+
     private final JwtParser jwtParser;
 
     private final long tokenValidityInMilliseconds;
@@ -39,7 +49,20 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    private final AuthorityRegistry authorityRegistry;
+
+    private final VerifiedTokenCache verifiedTokens;
+
+    private final int maxTokenLength;
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService,
+        AuthorityRegistry authorityRegistry,
+        JwtKeyRing jwtKeyRing,
+        ServerProperties serverProperties
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -54,15 +77,45 @@ public class TokenProvider {
             keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         }
         key = Keys.hmacShaKeyFor(keyBytes);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        verifyHmacTokens = applicationProperties.getSecurity().getJwt().isVerifyHmacTokens();
+        verifiedTokens = new VerifiedTokenCache(applicationProperties.getSecurity().getJwt().getVerifiedTokenCacheSize());
+        maxTokenLength = TokenSyntax.maxLength(serverProperties.getMaxHttpHeaderSize());
+        this.jwtKeyRing = jwtKeyRing;
+        jwtParser =
+            Jwts
+                .parserBuilder()
+                .setSigningKeyResolver(
+                    new SigningKeyResolverAdapter() {
+                        // The raw JwsHeader is the signature of the overridden method in jjwt 0.11
+                        @Override
+                        @SuppressWarnings("rawtypes")
+                        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                            return resolveKey(header.getKeyId());
+                        }
+                    }
+                )
+                .build();
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.authorityRegistry = authorityRegistry;
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
+        return createToken(authentication, rememberMe, null);
+    }
+
+    /**
+     * Create an access token belonging to a session, which can be revoked with the {@link TokenRevocationService}.
+     *
+     * @param authentication the authentication of the user.
+     * @param rememberMe whether the token has the validity of the "remember me" tokens.
+     * @param sessionId the id of the session, or {@code null} for a token that cannot be revoked.
+     * @return the token.
+     */
+    public String createToken(Authentication authentication, boolean rememberMe, String sessionId) {
         String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
 
         long now = (new Date()).getTime();
@@ -73,34 +126,53 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
+        JwtKeyRing.SigningKey signingKey = jwtKeyRing.getSigningKey();
         return Jwts
             .builder()
+            .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
+            .claim(SESSION_ID_KEY, sessionId)
+            .signWith(signingKey.getPrivateKey(), JwtKeyRing.ALGORITHM)
             .setExpiration(validity)
             .compact();
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        Authentication authentication = verifiedTokens.get(token, System.currentTimeMillis());
+        if (authentication != null) {
+            return authentication;
+        }
+        return toAuthentication(token, jwtParser.parseClaimsJws(token).getBody());
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+        return resolveAuthentication(authToken) != null;
+    }
 
-            return true;
+    /**
+     * Validate the token and build its {@link Authentication}, parsing it only once.
+     * <p>
+     * A token that is not well-formed is rejected first, without being digested or parsed. Tokens already verified are
+     * then served from a cache until they expire, so a client sending the same token on each request pays for the
+     * signature check only once.
+     *
+     * @param authToken the token.
+     * @return the authentication, or {@code null} if the token is not valid.
+     */
+    public Authentication resolveAuthentication(String authToken) {
+        if (!TokenSyntax.isWellFormed(authToken, maxTokenLength)) {
+            this.securityMetersService.trackTokenMalformed();
+
+            log.trace(INVALID_JWT_TOKEN);
+            return null;
+        }
+        Authentication authentication = verifiedTokens.get(authToken, System.currentTimeMillis());
+        if (authentication != null) {
+            return authentication;
+        }
+        try {
+            return toAuthentication(authToken, jwtParser.parseClaimsJws(authToken).getBody());
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +193,37 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    private Key resolveKey(String kid) {
+        if (kid == null) {
+            if (!verifyHmacTokens) {
+                throw new UnsupportedJwtException("Tokens without a key id are not accepted");
+            }
+            return key;
+        }
+        Key verificationKey = jwtKeyRing.getVerificationKey(kid);
+        if (verificationKey == null) {
+            throw new SignatureException("Unknown key id");
+        }
+        return verificationKey;
+    }
+
+    private Authentication toAuthentication(String token, Claims claims) {
+        Collection<? extends GrantedAuthority> authorities = authorityRegistry.parse(claims.get(AUTHORITIES_KEY).toString());
+
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        JwtAuthenticationToken authentication = new JwtAuthenticationToken(
+            principal,
+            token,
+            authorities,
+            claims.get(SESSION_ID_KEY, String.class)
+        );
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(token, authentication, claims.getExpiration().getTime(), System.currentTimeMillis());
+        }
+        return authentication;
     }
 }
@@ -0,0 +1,101 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import ai.planit.cancerlibrary.domain.RevokedSession;
+import ai.planit.cancerlibrary.repository.RevokedSessionRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Revokes sessions, so that their access tokens are refused by the {@link JWTFilter} before they expire.
+ * <p>
+ * Revocations are stored in the database and kept in memory in {@link RevokedSessions}. The revocations made by the
+ * other instances are loaded incrementally every {@code application.security.jwt.revocation-refresh-interval-ms}, by
+ * reading the rows created since the previous load, minus a margin for the transactions that committed late.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Duration LOAD_OVERLAP = Duration.ofSeconds(30);
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedSessionRepository revokedSessionRepository;
+
+    private final Duration accessTokenValidity;
+
+    private final RevokedSessions revokedSessions = new RevokedSessions();
+
+    private volatile Instant lastLoad = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedSessionRepository revokedSessionRepository, JHipsterProperties jHipsterProperties) {
+        this.revokedSessionRepository = revokedSessionRepository;
+        this.accessTokenValidity =
+            Duration.ofSeconds(jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds());
+    }
+
+    /**
+     * Revoke a session, until the last access token it may have been issued has expired.
+     *
+     * @param sessionId the id of the session.
+     */
+    public void revoke(String sessionId) {
+        Instant now = Instant.now();
+        RevokedSession revokedSession = new RevokedSession();
+        revokedSession.setSessionId(sessionId);
+        revokedSession.setCreatedDate(now);
+        revokedSession.setExpiresAt(now.plus(accessTokenValidity));
+        revokedSessionRepository.save(revokedSession);
+        revokedSessions.add(sessionId, revokedSession.getExpiresAt().toEpochMilli());
+        log.debug("Revoked session {}", sessionId);
+    }
+
+    /**
+     * @param sessionId the id of the session of an access token, {@code null} if it has none.
+     * @return whether the session is revoked.
+     */
+    public boolean isRevoked(String sessionId) {
+        return sessionId != null && revokedSessions.contains(sessionId, System.currentTimeMillis());
+    }
+
+    /**
+     * Load the revocations made since the previous load, and forget the expired ones.
+     * <p>
+     * This is run once the application is ready, then every {@code application.security.jwt.revocation-refresh-interval-ms}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.security.jwt.revocation-refresh-interval-ms:5000}")
+    public void load() {
+        Instant now = Instant.now();
+        Instant since = lastLoad.equals(Instant.EPOCH) ? Instant.EPOCH : lastLoad.minus(LOAD_OVERLAP);
+        List<RevokedSession> loaded;
+        try {
+            loaded = revokedSessionRepository.findAllByCreatedDateAfterAndExpiresAtAfter(since, now);
+        } catch (DataAccessException e) {
+            log.warn("Could not load the revoked sessions: {}", e.getMessage());
+            return;
+        }
+        loaded.forEach(revokedSession -> revokedSessions.add(revokedSession.getSessionId(), revokedSession.getExpiresAt().toEpochMilli()));
+        revokedSessions.purge(now.toEpochMilli());
+        lastLoad = now;
+    }
+
+    /**
+     * Expired revocations are deleted every day, at 01:45 (am).
+     */
+    @Scheduled(cron = "0 45 1 * * ?")
+    @Transactional
+    public void removeExpiredRevocations() {
+        int deleted = revokedSessionRepository.deleteByExpiresAtBefore(Instant.now());
+        log.debug("Deleted {} expired session revocations", deleted);
+    }
+}
@@ -0,0 +1,81 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import io.undertow.UndertowOptions;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Checks the shape of a compact JWS before it is handed to JJWT: three base64url segments separated by dots, no longer
+ * than a request can carry.
+ * <p>
+ * Garbage tokens are then rejected without parsing, nor the exceptions JJWT throws on them. The check reads every
+ * character whatever the defect and allocates nothing, so it costs the same for any token of a given length.
+ */
+final class TokenSyntax {
+
+    private static final boolean[] BASE64URL_ALPHABET = new boolean[128];
+
+    static {
+        for (char c = 'A'; c <= 'Z'; c++) {
+            BASE64URL_ALPHABET[c] = true;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            BASE64URL_ALPHABET[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            BASE64URL_ALPHABET[c] = true;
+        }
+        BASE64URL_ALPHABET['-'] = true;
+        BASE64URL_ALPHABET['_'] = true;
+    }
+
+    private TokenSyntax() {}
+
+    /**
+     * The length beyond which a token cannot have been received.
+     * <p>
+     * Undertow refuses the requests whose request line and headers exceed its {@code MAX_HEADER_SIZE}, set by Spring Boot
+     * from {@code server.max-http-header-size}: that bounds the tokens of the {@code Authorization} header as well as
+     * those of the query string, which are only shorter once decoded.
+     *
+     * @param maxHttpHeaderSize the {@code server.max-http-header-size}, of which a size that is not positive leaves the
+     * default of Undertow.
+     * @return the maximum length of a token.
+     */
+    static int maxLength(DataSize maxHttpHeaderSize) {
+        if (maxHttpHeaderSize == null || maxHttpHeaderSize.toBytes() <= 0) {
+            return UndertowOptions.DEFAULT_MAX_HEADER_SIZE;
+        }
+        return (int) Math.min(maxHttpHeaderSize.toBytes(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param token a token.
+     * @param maxLength the maximum length of a token, see {@link #maxLength(DataSize)}.
+     * @return whether the token has a non-empty header and payload, and a signature which may only be empty for an
+     * unsecured JWT, which JJWT reports as unsupported.
+     */
+    static boolean isWellFormed(String token, int maxLength) {
+        if (token == null || token.length() > maxLength) {
+            return false;
+        }
+        int length = token.length();
+        int dots = 0;
+        int firstDot = -1;
+        int secondDot = -1;
+        boolean inAlphabet = true;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                dots++;
+                if (dots == 1) {
+                    firstDot = i;
+                } else if (dots == 2) {
+                    secondDot = i;
+                }
+            } else {
+                inAlphabet &= c < BASE64URL_ALPHABET.length && BASE64URL_ALPHABET[c];
+            }
+        }
+        return inAlphabet && dots == 2 && firstDot > 0 && secondDot > firstDot + 1;
+    }
+}
@@ -0,0 +1,128 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * A bounded cache of the tokens whose signature was already verified, with what their {@link JwtAuthenticationToken} is
+ * built from.
+ * <p>
+ * The tokens are kept as their SHA-256 digest rather than as usable credentials, and each hit is given its own
+ * authentication, so that a request changing it, with its details for instance, does not change that of the others.
+ * <p>
+ * An entry is only served until the expiration of its token. When the cache is full, one thread at a time drops the
+ * expired entries and, if that is not enough, those expiring first: they are only a shortcut, a token that is not found
+ * is verified again. A cache of no entries keeps nothing, and does not even digest the tokens.
+ */
+class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final int maxEntries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return a new authentication for the token, or {@code null} if it is not cached or expired at {@code now}.
+     */
+    JwtAuthenticationToken get(String token, long now) {
+        if (maxEntries == 0) {
+            return null;
+        }
+        String digest = digest(token);
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (now >= entry.expiresAt) {
+            entries.remove(digest, entry);
+            return null;
+        }
+        return entry.toAuthentication(token);
+    }
+
+    void put(String token, JwtAuthenticationToken authentication, long expiresAt, long now) {
+        if (maxEntries == 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(digest(token), new Entry(authentication, expiresAt));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        if (!evictionLock.tryLock()) {
+            // Another thread is making room: until it is done, the cache may hold a few entries more than its size
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> now >= entry.expiresAt);
+            // Still full: make room for a quarter of the entries rather than evicting on every put
+            int excess = entries.size() - maxEntries * 3 / 4;
+            if (excess > 0) {
+                List<Map.Entry<String, Entry>> byExpiration = new ArrayList<>(entries.entrySet());
+                byExpiration.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAt));
+                for (Map.Entry<String, Entry> entry : byExpiration.subList(0, Math.min(excess, byExpiration.size()))) {
+                    entries.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static String digest(String token) {
+        // The digest is reset once computed, ready for the next token of the thread
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    private static class Entry {
+
+        private final String login;
+
+        private final List<GrantedAuthority> authorities;
+
+        private final String sessionId;
+
+        private final long expiresAt;
+
+        Entry(JwtAuthenticationToken authentication, long expiresAt) {
+            this.login = authentication.getName();
+            this.authorities = List.copyOf(authentication.getAuthorities());
+            this.sessionId = authentication.getSessionId();
+            this.expiresAt = expiresAt;
+        }
+
+        JwtAuthenticationToken toAuthentication(String token) {
+            return new JwtAuthenticationToken(new User(login, "", authorities), token, authorities, sessionId);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ai.planit.cancerlibrary.service;
+
+import ai.planit.cancerlibrary.domain.User;
+import ai.planit.cancerlibrary.repository.UserRepository;
+import ai.planit.cancerlibrary.service.dto.AdminUserDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Service serving the account of the current user, as requested by the client on each page load.
+ * <p>
+ * The account is cached by login already serialized, with an ETag which is a digest of its content: a hit costs
+ * neither a transaction nor a serialization, and a client sending the ETag back gets a {@code 304 (Not Modified)}.
+ * The entries are evicted by {@link UserService} with the other caches of the user, whenever it changes.
+ */
+@Service
+public class AccountService {
+
+    public static final String ACCOUNTS_BY_LOGIN_CACHE = "accountsByLogin";
+
+    private final Logger log = LoggerFactory.getLogger(AccountService.class);
+
+    private final UserRepository userRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final CacheManager cacheManager;
+
+    public AccountService(UserRepository userRepository, ObjectMapper objectMapper, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @param login the login of the user.
+     * @return the account of the user, serialized as JSON, or empty if there is no such user.
+     */
+    public Optional<SerializedAccount> getAccount(String login) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(ACCOUNTS_BY_LOGIN_CACHE));
+        SerializedAccount account = cache.get(login, SerializedAccount.class);
+        if (account != null) {
+            return Optional.of(account);
+        }
+        Optional<User> user = userRepository.findOneWithAuthoritiesByLogin(login);
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+        account = serialize(new AdminUserDTO(user.get()));
+        cache.put(login, account);
+        log.debug("Cached the account of {} with ETag {}", login, account.getEtag());
+        return Optional.of(account);
+    }
+
+    private SerializedAccount serialize(AdminUserDTO account) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(account);
+            return new SerializedAccount(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the account of " + account.getLogin(), e);
+        }
+    }
+
+    /**
+     * An account serialized as JSON, with its ETag.
+     */
+    public static class SerializedAccount implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] body;
+
+        private final String etag;
+
+        public SerializedAccount(byte[] body, String etag) {
+            this.body = body;
+            this.etag = etag;
+        }
+
+        /**
+         * @return the JSON of the account; shared by all the requests, so it must not be modified.
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ai.planit.cancerlibrary.service;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.User;
+import ai.planit.cancerlibrary.repository.UserRepository;
+import ai.planit.cancerlibrary.security.AuthorityRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service loading the user caches and the authorities on startup, so that the first logins after a deploy do not all
+ * go to the database at once.
+ * <p>
+ * The warm-up runs on {@link ApplicationReadyEvent}, once Liquibase has updated the schema, and Spring Boot only
+ * switches the readiness probe to UP after the listeners of this event have returned. The logins of the
+ * {@code application.cache.warm-up.users} most recently modified users are read first, then the users with their
+ * authorities, one query per batch, the batches being read in parallel on a pool of {@code threads} threads. After
+ * {@code timeout-seconds}, the application is reported ready with the caches partly loaded.
+ */
+@Service
+public class CacheWarmUpService {
+
+    private final Logger log = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+    private final UserRepository userRepository;
+
+    private final AuthorityRegistry authorityRegistry;
+
+    private final CacheManager cacheManager;
+
+    private final ApplicationProperties.Cache.WarmUp properties;
+
+    public CacheWarmUpService(
+        UserRepository userRepository,
+        AuthorityRegistry authorityRegistry,
+        CacheManager cacheManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userRepository = userRepository;
+        this.authorityRegistry = authorityRegistry;
+        this.cacheManager = cacheManager;
+        this.properties = applicationProperties.getCache().getWarmUp();
+    }
+
+    /**
+     * Load the authorities, and the most recently modified users into the {@code usersByLogin} and
+     * {@code usersByEmail} caches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        List<String> logins = List.of();
+        if (properties.getUsers() > 0) {
+            try {
+                logins = userRepository.findLoginsOfRecentlyModifiedUsers(PageRequest.of(0, properties.getUsers()));
+            } catch (DataAccessException e) {
+                log.warn("Could not warm up the user caches: {}", e.getMessage());
+            }
+        }
+
+        AtomicInteger loaded = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            properties.getThreads(),
+            properties.getThreads(),
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new CustomizableThreadFactory("cache-warm-up-")
+        );
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            tasks.add(CompletableFuture.runAsync(authorityRegistry::refresh, executor));
+            for (int from = 0; from < logins.size(); from += properties.getBatchSize()) {
+                List<String> batch = logins.subList(from, Math.min(from + properties.getBatchSize(), logins.size()));
+                tasks.add(CompletableFuture.runAsync(() -> loaded.addAndGet(loadUsers(batch)), executor));
+            }
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(properties.getTimeoutSeconds(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("The warm-up of the user caches timed out after {} seconds", properties.getTimeoutSeconds());
+        } catch (ExecutionException e) {
+            log.warn("Could not warm up the user caches: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Loaded {} users into the caches in {} ms", loaded.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private int loadUsers(List<String> logins) {
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        Cache usersByEmail = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        List<User> users = userRepository.findAllWithAuthoritiesByLoginIn(logins);
+        // An entry cached meanwhile by a login is at least as recent as the one read here
+        for (User user : users) {
+            usersByLogin.putIfAbsent(user.getLogin(), user);
+            if (user.getEmail() != null) {
+                usersByEmail.putIfAbsent(user.getEmail(), user);
+            }
+        }
+        return users.size();
+    }
+}
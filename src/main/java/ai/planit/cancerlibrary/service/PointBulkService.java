@@ -0,0 +1,158 @@
+package ai.planit.cancerlibrary.service;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.repository.PointRepository;
+import ai.planit.cancerlibrary.service.dto.PointBulkResultDTO;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for importing large numbers of {@link Point}s in one request.
+ * <p>
+ * The request body is read one row at a time, either as a JSON array or as newline-delimited JSON, so only the
+ * current chunk is ever held in memory. Valid rows are written in chunks of
+ * {@code application.point.bulk.chunk-size}, each in its own transaction, which lets Hibernate group the inserts into
+ * JDBC batches and draws ids from the pooled {@code sequence_generator}.
+ */
+@Service
+public class PointBulkService {
+
+    private final Logger log = LoggerFactory.getLogger(PointBulkService.class);
+
+    private final PointRepository pointRepository;
+
+    private final ObjectReader pointReader;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final PointChangeService pointChangeService;
+
+    private final int chunkSize;
+
+    public PointBulkService(
+        PointRepository pointRepository,
+        ObjectMapper objectMapper,
+        Validator validator,
+        PlatformTransactionManager transactionManager,
+        PointChangeService pointChangeService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.pointRepository = pointRepository;
+        this.pointReader = objectMapper.readerFor(Point.class);
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pointChangeService = pointChangeService;
+        this.chunkSize = applicationProperties.getPoint().getBulk().getChunkSize();
+    }
+
+    /**
+     * Create all the points contained in the given body.
+     * <p>
+     * Rows that cannot be bound or fail validation are reported and skipped; if a chunk is rejected by the database, all
+     * of its rows are reported and the import continues with the next chunk. A syntax error ends the import at that row.
+     *
+     * @param body a JSON array or newline-delimited JSON stream of points.
+     * @return the import summary, with the rejected rows.
+     * @throws IOException if the body cannot be read.
+     */
+    public PointBulkResultDTO createAll(InputStream body) throws IOException {
+        PointBulkResultDTO result = new PointBulkResultDTO();
+        List<Point> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkRows = new ArrayList<>(chunkSize);
+        // A body starting with '[' is unwrapped into its elements, anything else is read as a sequence of root-level values
+        try (MappingIterator<Point> rows = pointReader.readValues(body)) {
+            int row = 0;
+            while (true) {
+                int current = row;
+                Point point;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    point = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    result.addError(current, e.getOriginalMessage());
+                    continue;
+                } catch (JsonParseException e) {
+                    // The stream cannot be resynchronised past a syntax error: keep what was read so far and stop
+                    result.addError(current, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    row = current + 1;
+                    break;
+                }
+                String error = validate(point);
+                if (error != null) {
+                    result.addError(current, error);
+                    continue;
+                }
+                chunk.add(point);
+                chunkRows.add(current);
+                if (chunk.size() == chunkSize) {
+                    saveChunk(chunk, chunkRows, result);
+                }
+            }
+            saveChunk(chunk, chunkRows, result);
+            result.setReceived(row);
+        } finally {
+            // Chunks are committed as they go, so clients reload even if the import was interrupted
+            if (result.getCreated() > 0) {
+                pointChangeService.refresh();
+            }
+        }
+        log.debug("Bulk import of Points finished: {}", result);
+        return result;
+    }
+
+    private String validate(Point point) {
+        if (point == null) {
+            return "Row is null";
+        }
+        if (point.getId() != null) {
+            return "A new point cannot already have an ID";
+        }
+        if (point.getVersion() != null) {
+            return "A new point cannot already have a version";
+        }
+        Set<ConstraintViolation<Point>> violations = validator.validate(point);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage()).sorted().collect(Collectors.joining(", "));
+    }
+
+    private void saveChunk(List<Point> chunk, List<Integer> chunkRows, PointBulkResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> pointRepository.saveAll(chunk));
+            result.setCreated(result.getCreated() + chunk.size());
+        } catch (DataAccessException e) {
+            log.warn("Bulk import chunk of {} Points rejected: {}", chunk.size(), e.getMostSpecificCause().getMessage());
+            String message = "Chunk rejected by the database: " + e.getMostSpecificCause().getMessage();
+            chunkRows.forEach(row -> result.addError(row, message));
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+}
@@ -0,0 +1,156 @@
+package ai.planit.cancerlibrary.service;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.service.dto.PointChangeDTO;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service publishing the changes made to {@link Point}s on the {@code /topic/points} STOMP destination.
+ * <p>
+ * Changes are recorded once their transaction has committed, and coalesced per point until the next flush, every
+ * {@code application.point.changes.interval-ms}: several updates of a point are sent as one event with the union of the
+ * changed fields, and a point created then deleted is not sent at all. Each flush sends a single message holding the
+ * list of events. When more than {@code application.point.changes.max-events} points changed, or after a bulk import,
+ * a single {@link PointChangeDTO.Operation#REFRESH} event is sent instead.
+ */
+@Service
+public class PointChangeService {
+
+    public static final String DESTINATION = "/topic/points";
+
+    private final Logger log = LoggerFactory.getLogger(PointChangeService.class);
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final int maxEvents;
+
+    private final Object lock = new Object();
+
+    private final Map<Long, PointChangeDTO> pending = new LinkedHashMap<>();
+
+    private boolean refresh;
+
+    public PointChangeService(SimpMessageSendingOperations messagingTemplate, ApplicationProperties applicationProperties) {
+        this.messagingTemplate = messagingTemplate;
+        this.maxEvents = applicationProperties.getPoint().getChanges().getMaxEvents();
+    }
+
+    /**
+     * Record the creation of a point.
+     *
+     * @param point the created point.
+     */
+    public void created(Point point) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", point.getTitle());
+        fields.put("description", point.getDescription());
+        record(new PointChangeDTO(point.getId(), PointChangeDTO.Operation.CREATED, point.getVersion(), fields));
+    }
+
+    /**
+     * Record the update of a point.
+     *
+     * @param point the point as updated.
+     * @param partial whether only the non-null fields of {@code request} were updated.
+     * @param request the point sent by the client.
+     */
+    public void updated(Point point, boolean partial, Point request) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (!partial || request.getTitle() != null) {
+            fields.put("title", point.getTitle());
+        }
+        if (!partial || request.getDescription() != null) {
+            fields.put("description", point.getDescription());
+        }
+        record(new PointChangeDTO(point.getId(), PointChangeDTO.Operation.UPDATED, point.getVersion(), fields));
+    }
+
+    /**
+     * Record the deletion of a point.
+     *
+     * @param id the id of the deleted point.
+     */
+    public void deleted(Long id) {
+        record(new PointChangeDTO(id, PointChangeDTO.Operation.DELETED, null, null));
+    }
+
+    /**
+     * Record a change too large to be described point by point, such as a bulk import.
+     */
+    public void refresh() {
+        afterCommit(() -> {
+            synchronized (lock) {
+                refresh = true;
+                pending.clear();
+            }
+        });
+    }
+
+    private void record(PointChangeDTO change) {
+        afterCommit(() -> {
+            synchronized (lock) {
+                if (refresh) {
+                    return;
+                }
+                PointChangeDTO previous = pending.remove(change.getId());
+                PointChangeDTO merged = previous == null ? change : previous.merge(change);
+                if (merged != null) {
+                    pending.put(change.getId(), merged);
+                }
+                if (pending.size() > maxEvents) {
+                    refresh = true;
+                    pending.clear();
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
+    }
+
+    /**
+     * Send the changes recorded since the previous flush.
+     * <p>
+     * This is scheduled to run every {@code application.point.changes.interval-ms}.
+     */
+    @Scheduled(fixedDelayString = "${application.point.changes.interval-ms:250}")
+    public void flush() {
+        List<PointChangeDTO> changes;
+        synchronized (lock) {
+            if (refresh) {
+                changes = List.of(new PointChangeDTO(null, PointChangeDTO.Operation.REFRESH, null, null));
+                refresh = false;
+            } else if (pending.isEmpty()) {
+                return;
+            } else {
+                changes = new ArrayList<>(pending.values());
+            }
+            pending.clear();
+        }
+        log.debug("Sending {} Point changes", changes.size());
+        messagingTemplate.convertAndSend(DESTINATION, changes);
+    }
+}
@@ -0,0 +1,163 @@
+package ai.planit.cancerlibrary.service;
+
+import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.repository.PointRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for exporting all the {@link Point}s.
+ * <p>
+ * Rows are read through a forward-only database cursor and written to the output as soon as they are read, then
+ * detached from the persistence context, so the heap used does not depend on the size of the table. They are not put
+ * into the second-level cache either, so the export does not evict the points being read by other requests.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PointExportService {
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final String CSV_HEADER = "id,title,description,version";
+
+    private final Logger log = LoggerFactory.getLogger(PointExportService.class);
+
+    private final PointRepository pointRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter pointWriter;
+
+    public PointExportService(PointRepository pointRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.pointRepository = pointRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // One compact document per line, and let the output buffer decide when to flush
+        this.pointWriter =
+            objectMapper
+                .writerFor(Point.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write all the points to the given output, in id order.
+     *
+     * @param format the output format.
+     * @param out the output, which is flushed but not closed.
+     * @return the number of points written.
+     * @throws IOException if the output cannot be written.
+     */
+    public long export(Format format, OutputStream out) throws IOException {
+        long count;
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        // The cache mode hint of the query only holds while its cursor is opened, not while the rows are read
+        session.setCacheMode(CacheMode.IGNORE);
+        try (Stream<Point> points = pointRepository.streamAllOrderedById()) {
+            if (format == Format.CSV) {
+                count = writeCsv(points.iterator(), out);
+            } else {
+                count = writeNdjson(points.iterator(), out);
+            }
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        log.debug("Exported {} Points as {}", count, format);
+        return count;
+    }
+
+    private long writeNdjson(Iterator<Point> points, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (points.hasNext()) {
+                Point point = points.next();
+                pointWriter.writeValue(generator, point);
+                generator.writeRaw('\n');
+                entityManager.detach(point);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Point> points, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while (points.hasNext()) {
+            Point point = points.next();
+            writer.write(String.valueOf(point.getId()));
+            writer.write(',');
+            writeCsvField(writer, point.getTitle());
+            writer.write(',');
+            writeCsvField(writer, point.getDescription());
+            writer.write(',');
+            writer.write(String.valueOf(point.getVersion()));
+            writer.write("\r\n");
+            entityManager.detach(point);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quoted = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quoted) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
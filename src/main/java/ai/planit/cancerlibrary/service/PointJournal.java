@@ -0,0 +1,275 @@
+package ai.planit.cancerlibrary.service;
+
+import ai.planit.cancerlibrary.domain.Point;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal of the Point operations accepted by the {@link PointWriteBehindService}, one JSON document per
+ * line. An operation survives a crash once {@link #sync(long)} has returned for it: the threads that sync at the same
+ * time share a single force of the file to disk.
+ */
+class PointJournal implements Closeable {
+
+    static final String FILE_NAME = "points.journal";
+
+    static final String ID_FILE_NAME = "journal.id";
+
+    private final Logger log = LoggerFactory.getLogger(PointJournal.class);
+
+    private final Path directory;
+
+    private final Path file;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private final Condition syncDone = syncLock.newCondition();
+
+    private volatile long appendedSequence;
+
+    private long syncedSequence;
+
+    private boolean syncing;
+
+    private final ObjectReader entryReader;
+
+    private final ObjectWriter entryWriter;
+
+    private FileChannel channel;
+
+    PointJournal(Path directory, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.file = directory.resolve(FILE_NAME);
+        this.entryReader = objectMapper.readerFor(Entry.class);
+        this.entryWriter = objectMapper.writerFor(Entry.class);
+    }
+
+    /**
+     * The id of this journal, generated on first use and kept next to it. Unlike its path, which is usually the same on
+     * every instance, it tells apart the journals of the instances that share a database.
+     */
+    String id() throws IOException {
+        Path idFile = directory.resolve(ID_FILE_NAME);
+        if (!Files.exists(idFile)) {
+            Path tempFile = Files.createTempFile(directory, ID_FILE_NAME, ".tmp");
+            try (FileChannel idChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                idChannel.write(ByteBuffer.wrap(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)));
+                idChannel.force(true);
+            }
+            Files.move(tempFile, idFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return Files.readString(idFile, StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Read the entries of the journal, in order. A last entry that was only partially written before a crash, and so
+     * was never synced, is skipped.
+     *
+     * @return the length of the complete entries, which {@link #open(long)} cuts the journal back to.
+     */
+    long read(Consumer<Entry> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long length = 0;
+        long position = 0;
+        long lastSequence = 0;
+        JsonProcessingException corrupted = null;
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (corrupted != null) {
+                    throw new IOException("Corrupted Point journal entry after sequence " + lastSequence, corrupted);
+                }
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                String json = line.toString(StandardCharsets.UTF_8);
+                line.reset();
+                if (!json.isBlank()) {
+                    try {
+                        Entry entry = entryReader.readValue(json);
+                        consumer.accept(entry);
+                        lastSequence = entry.getSequence();
+                    } catch (JsonProcessingException e) {
+                        // Only an error if an entry follows it
+                        corrupted = e;
+                        continue;
+                    }
+                }
+                length = position;
+            }
+        }
+        if (length < position) {
+            log.warn("Ignoring the truncated last entry of the Point journal, {} bytes after sequence {}", position - length, lastSequence);
+        }
+        return length;
+    }
+
+    /**
+     * Open the journal for appending, after dropping what follows its complete entries: the next entry then starts on a
+     * line of its own.
+     *
+     * @param length the length returned by {@link #read(Consumer)}.
+     */
+    void open(long length) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (channel.size() > length) {
+            channel.truncate(length);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Write the entry at the end of the journal, without waiting for the disk. Entries are appended one at a time, in the
+     * order of their sequence numbers.
+     */
+    void append(Entry entry) throws IOException {
+        byte[] json = entryWriter.writeValueAsBytes(entry);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        appendedSequence = entry.getSequence();
+    }
+
+    /**
+     * Wait until the entries up to the given sequence number are on disk.
+     * <p>
+     * One thread at a time forces the file, for all the entries appended before it started; the threads arriving
+     * meanwhile wait for it, and the first of them whose entry is still not covered forces the file next.
+     */
+    void sync(long sequence) throws IOException {
+        syncLock.lock();
+        try {
+            while (syncedSequence < sequence) {
+                if (syncing) {
+                    syncDone.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = appendedSequence;
+                boolean forced = false;
+                syncLock.unlock();
+                try {
+                    channel.force(false);
+                    forced = true;
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    if (forced) {
+                        syncedSequence = Math.max(syncedSequence, target);
+                    }
+                    syncDone.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Drop all the entries, once they are all written to the database.
+     */
+    void truncate() throws IOException {
+        channel.truncate(0);
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    enum Operation {
+        CREATE,
+        UPDATE,
+        PARTIAL_UPDATE,
+    }
+
+    /**
+     * A journaled operation, numbered in the order it was accepted.
+     */
+    static class Entry {
+
+        private long sequence;
+
+        private Operation operation;
+
+        private Point point;
+
+        private Set<Long> versions;
+
+        Entry() {}
+
+        Entry(long sequence, Operation operation, Point point, Set<Long> versions) {
+            this.sequence = sequence;
+            this.operation = operation;
+            this.point = point;
+            this.versions = versions;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public void setSequence(long sequence) {
+            this.sequence = sequence;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public void setOperation(Operation operation) {
+            this.operation = operation;
+        }
+
+        public Point getPoint() {
+            return point;
+        }
+
+        public void setPoint(Point point) {
+            this.point = point;
+        }
+
+        public Set<Long> getVersions() {
+            return versions;
+        }
+
+        public void setVersions(Set<Long> versions) {
+            this.versions = versions;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ai.planit.cancerlibrary.service;
+
+/**
+ * Thrown when too many Point operations are waiting to be written by the write-behind queue.
+ */
+public class PointQueueFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public PointQueueFullException(long retryAfterSeconds) {
+        super("Too many Point operations are waiting to be written");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,429 @@
+package ai.planit.cancerlibrary.service;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.repository.PointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.validation.ConstraintViolationException;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for writing {@link Point}s asynchronously, when {@code application.point.write-behind.enabled} is set.
+ * <p>
+ * Accepted operations are appended to a {@link PointJournal} on local disk, then written to the database by a single
+ * background thread, in batches that each run in one transaction. The sequence number of the last operation written
+ * is stored in the {@code point_journal_checkpoint} table in that same transaction, under the id of the journal, so
+ * after a crash exactly the operations that were not committed are replayed from the journal. Each instance of the
+ * application has its own journal directory, and so its own id and checkpoint.
+ * <p>
+ * At most {@code capacity} operations wait to be written; beyond that, {@link PointQueueFullException} is thrown so
+ * that clients slow down instead of the heap and the journal growing without bound.
+ * <p>
+ * The queue starts before the web server and stops after it, once the requests in progress have completed: an
+ * operation submitted while it is not running is refused with {@link PointWriteBehindUnavailableException}.
+ */
+@Service
+public class PointWriteBehindService implements SmartLifecycle {
+
+    public static final String QUEUE_METER_NAME = "point.write-behind.queue";
+    public static final String FLUSH_METER_NAME = "point.write-behind.flush";
+    public static final String OPERATIONS_METER_NAME = "point.write-behind.operations";
+    public static final String OPERATIONS_METER_RESULT_DIMENSION = "result";
+
+    /**
+     * The journal is emptied when nothing is waiting and it is larger than this.
+     */
+    private static final long JOURNAL_COMPACTION_BYTES = 4L * 1024 * 1024;
+
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(PointWriteBehindService.class);
+
+    private final ApplicationProperties.Point.WriteBehind properties;
+
+    private final PointRepository pointRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final PointChangeService pointChangeService;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition batchReady = lock.newCondition();
+
+    private final ArrayDeque<PointJournal.Entry> pending = new ArrayDeque<>();
+
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private final Timer flushTimer;
+
+    private final Counter appliedCounter;
+
+    private final Counter rejectedCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter refusedCounter;
+
+    private PointJournal journal;
+
+    private String journalId;
+
+    private long lastSequence;
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    public PointWriteBehindService(
+        ApplicationProperties applicationProperties,
+        PointRepository pointRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        PointChangeService pointChangeService,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = applicationProperties.getPoint().getWriteBehind();
+        this.pointRepository = pointRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.pointChangeService = pointChangeService;
+
+        Gauge
+            .builder(QUEUE_METER_NAME, depth, AtomicInteger::get)
+            .description("Number of Point operations waiting to be written to the database")
+            .baseUnit("operations")
+            .register(meterRegistry);
+        this.flushTimer = Timer
+            .builder(FLUSH_METER_NAME)
+            .description("Time taken to write a batch of Point operations to the database")
+            .register(meterRegistry);
+        this.appliedCounter = operationsCounter("applied", meterRegistry);
+        this.rejectedCounter = operationsCounter("rejected", meterRegistry);
+        this.failedCounter = operationsCounter("failed", meterRegistry);
+        this.refusedCounter = operationsCounter("refused", meterRegistry);
+    }
+
+    private static Counter operationsCounter(String result, MeterRegistry meterRegistry) {
+        return Counter
+            .builder(OPERATIONS_METER_NAME)
+            .description("Point operations by outcome: applied, rejected on a version mismatch, failed or refused when full")
+            .baseUnit("operations")
+            .tag(OPERATIONS_METER_RESULT_DIMENSION, result)
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Accept the creation of a point.
+     *
+     * @param point the point to create, without id.
+     * @throws PointQueueFullException if too many operations are waiting.
+     */
+    public void create(Point point) {
+        submit(PointJournal.Operation.CREATE, point, null);
+    }
+
+    /**
+     * Accept the update of a point, which is applied only if the point has one of the given versions.
+     *
+     * @param point the id and the new values of the point.
+     * @param partial whether the {@code null} values of {@code point} are left unchanged.
+     * @param versions the versions the point must have for the update to apply, or {@code null} for any version.
+     * @throws PointQueueFullException if too many operations are waiting.
+     */
+    public void update(Point point, boolean partial, Set<Long> versions) {
+        submit(partial ? PointJournal.Operation.PARTIAL_UPDATE : PointJournal.Operation.UPDATE, point, versions);
+    }
+
+    private void submit(PointJournal.Operation operation, Point point, Set<Long> versions) {
+        long sequence;
+        lock.lock();
+        try {
+            if (!running) {
+                throw new PointWriteBehindUnavailableException();
+            }
+            if (pending.size() >= properties.getCapacity()) {
+                refusedCounter.increment();
+                throw new PointQueueFullException(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(properties.getFlushIntervalMs())));
+            }
+            PointJournal.Entry entry = new PointJournal.Entry(lastSequence + 1, operation, point, versions);
+            journal.append(entry);
+            lastSequence = entry.getSequence();
+            sequence = lastSequence;
+            pending.addLast(entry);
+            depth.set(pending.size());
+            if (pending.size() >= properties.getBatchSize()) {
+                batchReady.signal();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal the Point operation", e);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            // Outside of the lock, so that the operations submitted meanwhile are forced to disk together
+            journal.sync(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal the Point operation", e);
+        }
+    }
+
+    /**
+     * Replay the operations of the journal that are not written to the database yet, and start the background writer.
+     */
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        if (properties.getJournalDirectory() == null || properties.getJournalDirectory().isBlank()) {
+            throw new IllegalStateException("application.point.write-behind.journal-directory must be set to enable write-behind");
+        }
+        Path journalDirectory = Paths.get(properties.getJournalDirectory()).toAbsolutePath().normalize();
+        try {
+            journal = new PointJournal(journalDirectory, objectMapper);
+            journalId = journal.id();
+            long checkpoint = readCheckpoint();
+            lastSequence = checkpoint;
+            long length = journal.read(entry -> {
+                if (entry.getSequence() > checkpoint) {
+                    pending.addLast(entry);
+                }
+                lastSequence = Math.max(lastSequence, entry.getSequence());
+            });
+            journal.open(length);
+            if (pending.isEmpty()) {
+                journal.truncate();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover the Point journal", e);
+        }
+        depth.set(pending.size());
+        log.info("Point write-behind started from {} ({}), {} operations to replay", journalDirectory, journalId, pending.size());
+        running = true;
+        flusher = new Thread(this::run, "point-write-behind");
+        flusher.start();
+    }
+
+    /**
+     * Stop accepting operations, and write the ones that are waiting before returning.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        lock.lock();
+        try {
+            running = false;
+            batchReady.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+            if (flusher.isAlive()) {
+                // The database is unreachable: what is left stays in the journal for the next start
+                flusher.interrupt();
+                flusher.join();
+            }
+            journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Could not close the Point journal", e);
+        }
+        log.info("Point write-behind stopped, {} operations left to replay", depth.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * After the phases of the graceful shutdown and of the web server, which stop before this one.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void run() {
+        try {
+            List<PointJournal.Entry> batch = nextBatch();
+            while (!batch.isEmpty() || running) {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                batch = nextBatch();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait for a full batch, or for the flush interval, and return the oldest waiting operations without removing them.
+     */
+    private List<PointJournal.Entry> nextBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+            while (running && pending.size() < properties.getBatchSize() && remaining > 0) {
+                remaining = batchReady.awaitNanos(remaining);
+            }
+            List<PointJournal.Entry> batch = new ArrayList<>(Math.min(pending.size(), properties.getBatchSize()));
+            Iterator<PointJournal.Entry> entries = pending.iterator();
+            while (entries.hasNext() && batch.size() < properties.getBatchSize()) {
+                batch.add(entries.next());
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush(List<PointJournal.Entry> batch) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            int applied = transactionTemplate.execute(status -> applyAll(batch));
+            appliedCounter.increment(applied);
+            rejectedCounter.increment(batch.size() - applied);
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} Point operations failed, writing them one by one: {}", batch.size(), e.getMessage());
+            for (PointJournal.Entry entry : batch) {
+                flushOne(entry);
+            }
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        remove(batch.size());
+    }
+
+    private void flushOne(PointJournal.Entry entry) throws InterruptedException {
+        while (true) {
+            try {
+                int applied = transactionTemplate.execute(status -> applyAll(List.of(entry)));
+                (applied == 1 ? appliedCounter : rejectedCounter).increment();
+                return;
+            } catch (NonTransientDataAccessException | ConstraintViolationException e) {
+                // Retrying cannot help: skip the operation
+                log.error("Point operation {} failed and is dropped: {}", entry.getSequence(), e.getMessage());
+                transactionTemplate.executeWithoutResult(status -> writeCheckpoint(entry.getSequence()));
+                failedCounter.increment();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Point operation {} failed, retrying in {} ms: {}", entry.getSequence(), RETRY_DELAY_MS, e.getMessage());
+                Thread.sleep(RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    /**
+     * Apply the operations, and move the checkpoint past them, in the current transaction.
+     *
+     * @return the number of operations applied; the others are updates whose version did not match.
+     */
+    private int applyAll(List<PointJournal.Entry> entries) {
+        int applied = 0;
+        for (PointJournal.Entry entry : entries) {
+            Point point = entry.getPoint();
+            if (entry.getOperation() == PointJournal.Operation.CREATE) {
+                pointChangeService.created(pointRepository.save(point.id(null).version(null)));
+                applied++;
+                continue;
+            }
+            boolean partial = entry.getOperation() == PointJournal.Operation.PARTIAL_UPDATE;
+            Optional<Point> updated = pointRepository.update(point, partial, entry.getVersions());
+            if (updated.isPresent()) {
+                pointChangeService.updated(updated.get(), partial, point);
+                applied++;
+            } else {
+                log.debug("Point update {} skipped, no point {} with versions {}", entry.getSequence(), point.getId(), entry.getVersions());
+            }
+        }
+        writeCheckpoint(entries.get(entries.size() - 1).getSequence());
+        return applied;
+    }
+
+    private void remove(int count) {
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                pending.removeFirst();
+            }
+            depth.set(pending.size());
+            if (pending.isEmpty() && journal.size() > JOURNAL_COMPACTION_BYTES) {
+                journal.truncate();
+            }
+        } catch (IOException e) {
+            log.warn("Could not compact the Point journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long readCheckpoint() {
+        return transactionTemplate.execute(status -> {
+            List<?> sequences = entityManager
+                .createNativeQuery("select sequence from point_journal_checkpoint where journal = :journal")
+                .setParameter("journal", journalId)
+                .getResultList();
+            if (!sequences.isEmpty()) {
+                return ((Number) sequences.get(0)).longValue();
+            }
+            checkpointStatement("insert into point_journal_checkpoint (journal, sequence) values (:journal, 0)").executeUpdate();
+            return 0L;
+        });
+    }
+
+    private void writeCheckpoint(long sequence) {
+        checkpointStatement("update point_journal_checkpoint set sequence = :sequence where journal = :journal")
+            .setParameter("sequence", sequence)
+            .executeUpdate();
+    }
+
+    private Query checkpointStatement(String sql) {
+        Query query = entityManager.createNativeQuery(sql).setParameter("journal", journalId);
+        // Without a query space, Hibernate would invalidate every second-level cache region on each write
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace("point_journal_checkpoint");
+        return query;
+    }
+}
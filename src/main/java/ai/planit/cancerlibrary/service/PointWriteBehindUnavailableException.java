@@ -0,0 +1,13 @@
+package ai.planit.cancerlibrary.service;
+
+/**
+ * Thrown when a Point operation is submitted while the write-behind queue is not running, typically during a shutdown.
+ */
+public class PointWriteBehindUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PointWriteBehindUnavailableException() {
+        super("The Point write-behind queue is not running, please retry");
+    }
+}
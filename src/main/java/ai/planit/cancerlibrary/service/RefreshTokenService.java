@@ -0,0 +1,220 @@
+package ai.planit.cancerlibrary.service;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.Authority;
+import ai.planit.cancerlibrary.domain.RefreshToken;
+import ai.planit.cancerlibrary.domain.User;
+import ai.planit.cancerlibrary.repository.RefreshTokenRepository;
+import ai.planit.cancerlibrary.repository.UserRepository;
+import ai.planit.cancerlibrary.security.AuthorityRegistry;
+import ai.planit.cancerlibrary.security.jwt.TokenProvider;
+import ai.planit.cancerlibrary.security.jwt.TokenRevocationService;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service managing the sessions of the users: short-lived access tokens, renewed with rotating refresh tokens.
+ * <p>
+ * Each refresh token can be used once, and is replaced by a new one of the same session. A refresh token used twice has
+ * been stolen, or replayed by the client: the whole session is then revoked, so that neither party can use it. The
+ * refresh tokens are stored as their SHA-256 hash.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final TokenProvider tokenProvider;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private final AuthorityRegistry authorityRegistry;
+
+    private final Duration validity;
+
+    private final Duration validityForRememberMe;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        UserRepository userRepository,
+        TokenProvider tokenProvider,
+        TokenRevocationService tokenRevocationService,
+        AuthorityRegistry authorityRegistry,
+        ApplicationProperties applicationProperties,
+        JHipsterProperties jHipsterProperties
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.tokenProvider = tokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
+        this.authorityRegistry = authorityRegistry;
+        this.validity = Duration.ofSeconds(applicationProperties.getSecurity().getJwt().getRefreshTokenValiditySeconds());
+        this.validityForRememberMe =
+            Duration.ofSeconds(jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe());
+    }
+
+    /**
+     * Open a session for an authenticated user.
+     *
+     * @param authentication the authentication of the user.
+     * @param rememberMe whether the refresh tokens have the validity of the "remember me" tokens.
+     * @return the tokens of the session.
+     */
+    public Tokens createSession(Authentication authentication, boolean rememberMe) {
+        String sessionId = UUID.randomUUID().toString();
+        return new Tokens(
+            tokenProvider.createToken(authentication, false, sessionId),
+            createRefreshToken(authentication.getName(), sessionId, rememberMe)
+        );
+    }
+
+    /**
+     * Renew the tokens of a session.
+     *
+     * @param refreshToken the refresh token sent by the client.
+     * @return the new tokens, or empty if the refresh token is unknown, expired or already used, or if the user can no
+     * longer log in.
+     */
+    public Optional<Tokens> refresh(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        RefreshToken stored = refreshTokenRepository.findById(tokenHash).orElse(null);
+        if (stored == null || stored.getExpiresAt().isBefore(Instant.now())) {
+            return Optional.empty();
+        }
+        if (refreshTokenRepository.markUsed(tokenHash) == 0) {
+            log.warn("Reuse of a refresh token of {}, revoking session {}", stored.getLogin(), stored.getSessionId());
+            revokeSession(stored.getSessionId());
+            return Optional.empty();
+        }
+        Optional<User> user = userRepository.findOneWithAuthoritiesByLogin(stored.getLogin()).filter(User::isActivated);
+        if (user.isEmpty()) {
+            revokeSession(stored.getSessionId());
+            return Optional.empty();
+        }
+        List<GrantedAuthority> authorities = user
+            .get()
+            .getAuthorities()
+            .stream()
+            .map(Authority::getName)
+            .map(authorityRegistry::get)
+            .collect(Collectors.toList());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(stored.getLogin(), "", authorities);
+        return Optional.of(
+            new Tokens(
+                tokenProvider.createToken(authentication, false, stored.getSessionId()),
+                createRefreshToken(stored.getLogin(), stored.getSessionId(), stored.isRememberMe())
+            )
+        );
+    }
+
+    /**
+     * Revoke a session: its refresh tokens are deleted, and its access tokens refused.
+     *
+     * @param sessionId the id of the session.
+     */
+    public void revokeSession(String sessionId) {
+        refreshTokenRepository.deleteBySessionId(sessionId);
+        tokenRevocationService.revoke(sessionId);
+    }
+
+    /**
+     * Revoke the sessions of users, those with a refresh token that is not yet deleted.
+     *
+     * @param logins the logins of the users.
+     */
+    public void revokeSessions(Collection<String> logins) {
+        if (logins.isEmpty()) {
+            return;
+        }
+        refreshTokenRepository.findSessionIdsByLoginIn(logins).forEach(this::revokeSession);
+    }
+
+    /**
+     * Expired refresh tokens are deleted every day, at 01:30 (am).
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public void removeExpiredRefreshTokens() {
+        int deleted = refreshTokenRepository.deleteByExpiresAtBefore(Instant.now());
+        log.debug("Deleted {} expired refresh tokens", deleted);
+    }
+
+    private String createRefreshToken(String login, String sessionId, boolean rememberMe) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant now = Instant.now();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setSessionId(sessionId);
+        refreshToken.setLogin(login);
+        refreshToken.setRememberMe(rememberMe);
+        refreshToken.setCreatedDate(now);
+        refreshToken.setExpiresAt(now.plus(rememberMe ? validityForRememberMe : validity));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The tokens of a session.
+     */
+    public static class Tokens {
+
+        private final String accessToken;
+
+        private final String refreshToken;
+
+        public Tokens(String accessToken, String refreshToken) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
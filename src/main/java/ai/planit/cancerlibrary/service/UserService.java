@@ -1,5 +1,6 @@
 package ai.planit.cancerlibrary.service;
 
+import ai.planit.cancerlibrary.config.ApplicationProperties;
 import ai.planit.cancerlibrary.config.Constants;
 import ai.planit.cancerlibrary.domain.Authority;
 import ai.planit.cancerlibrary.domain.User;
@@ -9,19 +10,30 @@ import ai.planit.cancerlibrary.security.AuthoritiesConstants;
 import ai.planit.cancerlibrary.security.SecurityUtils;
 import ai.planit.cancerlibrary.service.dto.AdminUserDTO;
 import ai.planit.cancerlibrary.service.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -31,6 +43,9 @@ import tech.jhipster.security.RandomUtil;
 @Transactional
 public class UserService {
 
+    public static final String PURGED_USERS_METER_NAME = "user.purge.deleted";
+    public static final String PURGE_CHUNKS_METER_NAME = "user.purge.chunks";
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -41,16 +56,41 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final RefreshTokenService refreshTokenService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int purgeChunkSize;
+
+    private final Counter purgedUsersCounter;
+
+    private final Timer purgeChunksTimer;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        RefreshTokenService refreshTokenService,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.refreshTokenService = refreshTokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purgeChunkSize = applicationProperties.getUser().getPurge().getChunkSize();
+        this.purgedUsersCounter =
+            Counter
+                .builder(PURGED_USERS_METER_NAME)
+                .baseUnit("users")
+                .description("Indicates the count of the not activated users deleted by the daily purge.")
+                .register(meterRegistry);
+        this.purgeChunksTimer =
+            Timer.builder(PURGE_CHUNKS_METER_NAME).description("Time spent on each chunk of the daily purge.").register(meterRegistry);
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -146,6 +186,34 @@ public class UserService {
     }
 
     public User createUser(AdminUserDTO userDTO) {
+        String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
+        User user = newUser(userDTO, encryptedPassword, findAuthorities(List.of(userDTO)));
+        userRepository.save(user);
+        this.clearUserCaches(user);
+        log.debug("Created Information for User: {}", user);
+        return user;
+    }
+
+    /**
+     * Create users, in one transaction.
+     * <p>
+     * Their authorities are read in one query. They all get the same generated password: nobody knows it, as they
+     * choose theirs with their reset key, and hashing it is deliberately slow.
+     *
+     * @param userDTOs users to create.
+     * @return created users.
+     */
+    public List<User> createUsers(List<AdminUserDTO> userDTOs) {
+        String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
+        Map<String, Authority> authorities = findAuthorities(userDTOs);
+        List<User> users = userDTOs.stream().map(userDTO -> newUser(userDTO, encryptedPassword, authorities)).collect(Collectors.toList());
+        userRepository.saveAll(users);
+        users.forEach(this::clearUserCaches);
+        log.debug("Created Information for {} Users", users.size());
+        return users;
+    }
+
+    private User newUser(AdminUserDTO userDTO, String encryptedPassword, Map<String, Authority> authorities) {
         User user = new User();
         user.setLogin(userDTO.getLogin().toLowerCase());
         user.setFirstName(userDTO.getFirstName());
@@ -159,24 +227,13 @@ public class UserService {
         } else {
             user.setLangKey(userDTO.getLangKey());
         }
-        String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
         user.setPassword(encryptedPassword);
         user.setResetKey(RandomUtil.generateResetKey());
         user.setResetDate(Instant.now());
         user.setActivated(true);
         if (userDTO.getAuthorities() != null) {
-            Set<Authority> authorities = userDTO
-                .getAuthorities()
-                .stream()
-                .map(authorityRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toSet());
-            user.setAuthorities(authorities);
+            setAuthorities(user, userDTO.getAuthorities(), authorities);
         }
-        userRepository.save(user);
-        this.clearUserCaches(user);
-        log.debug("Created Information for User: {}", user);
         return user;
     }
 
@@ -187,35 +244,79 @@ public class UserService {
      * @return updated user.
      */
     public Optional<AdminUserDTO> updateUser(AdminUserDTO userDTO) {
-        return Optional
-            .of(userRepository.findById(userDTO.getId()))
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .map(user -> {
-                this.clearUserCaches(user);
-                user.setLogin(userDTO.getLogin().toLowerCase());
-                user.setFirstName(userDTO.getFirstName());
-                user.setLastName(userDTO.getLastName());
-                if (userDTO.getEmail() != null) {
-                    user.setEmail(userDTO.getEmail().toLowerCase());
-                }
-                user.setImageUrl(userDTO.getImageUrl());
-                user.setActivated(userDTO.isActivated());
-                user.setLangKey(userDTO.getLangKey());
-                Set<Authority> managedAuthorities = user.getAuthorities();
-                managedAuthorities.clear();
-                userDTO
-                    .getAuthorities()
-                    .stream()
-                    .map(authorityRepository::findById)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .forEach(managedAuthorities::add);
-                this.clearUserCaches(user);
-                log.debug("Changed Information for User: {}", user);
-                return user;
-            })
-            .map(AdminUserDTO::new);
+        Map<String, Authority> authorities = findAuthorities(List.of(userDTO));
+        return userRepository.findById(userDTO.getId()).map(user -> updateUser(user, userDTO, authorities)).map(AdminUserDTO::new);
+    }
+
+    /**
+     * Update users, in one transaction, and return the modified users.
+     * <p>
+     * The users and their authorities are read in one query each, and only the changes of their authorities are written.
+     * Users that do not exist are skipped.
+     *
+     * @param userDTOs users to update.
+     * @return updated users.
+     */
+    public List<AdminUserDTO> updateUsers(List<AdminUserDTO> userDTOs) {
+        if (userDTOs.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> users = userRepository
+            .findAllWithAuthoritiesByIdIn(userDTOs.stream().map(AdminUserDTO::getId).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, Authority> authorities = findAuthorities(userDTOs);
+        return userDTOs
+            .stream()
+            .filter(userDTO -> users.containsKey(userDTO.getId()))
+            .map(userDTO -> updateUser(users.get(userDTO.getId()), userDTO, authorities))
+            .map(AdminUserDTO::new)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Update a user, revoking their sessions if they are deactivated.
+     */
+    private User updateUser(User user, AdminUserDTO userDTO, Map<String, Authority> authorities) {
+        this.clearUserCaches(user);
+        if (user.isActivated() && !userDTO.isActivated()) {
+            // The refresh tokens are stored under the login before the update
+            refreshTokenService.revokeSessions(List.of(user.getLogin()));
+        }
+        user.setLogin(userDTO.getLogin().toLowerCase());
+        user.setFirstName(userDTO.getFirstName());
+        user.setLastName(userDTO.getLastName());
+        if (userDTO.getEmail() != null) {
+            user.setEmail(userDTO.getEmail().toLowerCase());
+        }
+        user.setImageUrl(userDTO.getImageUrl());
+        user.setActivated(userDTO.isActivated());
+        user.setLangKey(userDTO.getLangKey());
+        setAuthorities(user, userDTO.getAuthorities(), authorities);
+        this.clearUserCaches(user);
+        log.debug("Changed Information for User: {}", user);
+        return user;
+    }
+
+    /**
+     * Deactivate users, in one transaction, and revoke their sessions.
+     *
+     * @param logins logins of the users to deactivate.
+     * @return the number of users deactivated, the others being already deactivated or not existing.
+     */
+    public int deactivateUsers(Collection<String> logins) {
+        Set<String> lowercaseLogins = logins.stream().map(String::toLowerCase).collect(Collectors.toSet());
+        if (lowercaseLogins.isEmpty()) {
+            return 0;
+        }
+        List<User> users = userRepository.findAllByLoginIn(lowercaseLogins).stream().filter(User::isActivated).collect(Collectors.toList());
+        users.forEach(user -> {
+            user.setActivated(false);
+            this.clearUserCaches(user);
+        });
+        refreshTokenService.revokeSessions(users.stream().map(User::getLogin).collect(Collectors.toList()));
+        log.debug("Deactivated {} Users", users.size());
+        return users.size();
     }
 
     public void deleteUser(String login) {
@@ -224,6 +325,7 @@ public class UserService {
             .ifPresent(user -> {
                 userRepository.delete(user);
                 this.clearUserCaches(user);
+                refreshTokenService.revokeSessions(List.of(user.getLogin()));
                 log.debug("Deleted User: {}", user);
             });
     }
@@ -294,17 +396,63 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am). The users are deleted in chunks of
+     * {@code application.user.purge.chunk-size}, in the order of their ids, each chunk with one delete per table and in
+     * its own transaction, unless called within a transaction. A chunk rejected by the database is logged and skipped.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        long start = System.nanoTime();
+        AtomicLong afterId = new AtomicLong(Long.MIN_VALUE);
+        int deleted = 0;
+        while (true) {
+            long previousId = afterId.get();
+            Integer chunkDeleted;
+            try {
+                chunkDeleted =
+                    purgeChunksTimer.record(() -> transactionTemplate.execute(status -> removeNotActivatedUsers(createdBefore, afterId)));
+            } catch (DataAccessException e) {
+                log.warn("Could not delete the not activated users after id {}: {}", previousId, e.getMessage());
+                if (afterId.get() == previousId) {
+                    // Not even the chunk could be read: the next attempt is tomorrow's
+                    break;
+                }
+                continue;
+            }
+            if (chunkDeleted == null) {
+                break;
+            }
+            deleted += chunkDeleted;
+            purgedUsersCounter.increment(chunkDeleted);
+            log.debug("Deleted {} not activated users, up to id {}", deleted, afterId.get());
+        }
+        log.info("Deleted {} not activated users in {} ms", deleted, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Delete the next chunk of not activated users, and advance {@code afterId} to its last id before deleting it.
+     *
+     * @return the number of users deleted, or {@code null} if there are none left.
+     */
+    private Integer removeNotActivatedUsers(Instant createdBefore, AtomicLong afterId) {
+        List<User> users = userRepository.findNotActivatedUsersCreatedBefore(
+            createdBefore,
+            afterId.get(),
+            PageRequest.of(0, purgeChunkSize)
+        );
+        if (users.isEmpty()) {
+            return null;
+        }
+        long firstId = users.get(0).getId();
+        long lastId = users.get(users.size() - 1).getId();
+        afterId.set(lastId);
+        // Hibernate deletes their rows of jhi_user_authority first, with the same condition
+        int deleted = userRepository.deleteNotActivatedUsers(createdBefore, firstId, lastId);
+        // Evicted at once here, and from the other instances after the commit, in one broadcast per cache
+        users.forEach(this::clearUserCaches);
+        return deleted;
     }
 
     /**
@@ -316,8 +464,38 @@ public class UserService {
         return authorityRepository.findAll().stream().map(Authority::getName).collect(Collectors.toList());
     }
 
+    /**
+     * @param userDTOs users.
+     * @return the existing authorities among those of the users, by name, read in one query.
+     */
+    private Map<String, Authority> findAuthorities(Collection<AdminUserDTO> userDTOs) {
+        Set<String> names = userDTOs
+            .stream()
+            .map(AdminUserDTO::getAuthorities)
+            .filter(Objects::nonNull)
+            .flatMap(Set::stream)
+            .collect(Collectors.toSet());
+        if (names.isEmpty()) {
+            return Map.of();
+        }
+        return authorityRepository.findAllById(names).stream().collect(Collectors.toMap(Authority::getName, Function.identity()));
+    }
+
+    /**
+     * Change the authorities of a user in place, so that Hibernate only deletes the rows of {@code jhi_user_authority}
+     * of the removed authorities and inserts those of the added ones, in JDBC batches.
+     */
+    private static void setAuthorities(User user, Set<String> names, Map<String, Authority> authorities) {
+        Set<Authority> wanted = names == null
+            ? Set.of()
+            : names.stream().map(authorities::get).filter(Objects::nonNull).collect(Collectors.toSet());
+        user.getAuthorities().retainAll(wanted);
+        user.getAuthorities().addAll(wanted);
+    }
+
     private void clearUserCaches(User user) {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+        Objects.requireNonNull(cacheManager.getCache(AccountService.ACCOUNTS_BY_LOGIN_CACHE)).evict(user.getLogin());
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
@@ -0,0 +1,73 @@
+package ai.planit.cancerlibrary.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a bulk {@link ai.planit.cancerlibrary.domain.Point} import, with the rows that were rejected.
+ */
+public class PointBulkResultDTO {
+
+    private int received;
+
+    private int created;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void addError(int row, String message) {
+        errors.add(new RowError(row, message));
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PointBulkResultDTO{" +
+            "received=" + received +
+            ", created=" + created +
+            ", errors=" + errors.size() +
+            "}";
+    }
+
+    /**
+     * A rejected row, identified by its zero-based position in the request body.
+     */
+    public static class RowError {
+
+        private final int row;
+
+        private final String message;
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ai.planit.cancerlibrary.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A DTO representing a change to a {@link ai.planit.cancerlibrary.domain.Point}, as published on {@code /topic/points}.
+ * <p>
+ * Only the fields that changed are sent; a {@link Operation#REFRESH} carries no point and tells clients to reload.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PointChangeDTO {
+
+    public enum Operation {
+        CREATED,
+        UPDATED,
+        DELETED,
+        REFRESH,
+    }
+
+    private Long id;
+
+    private Operation op;
+
+    private Long version;
+
+    private Map<String, Object> fields;
+
+    public PointChangeDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PointChangeDTO(Long id, Operation op, Long version, Map<String, Object> fields) {
+        this.id = id;
+        this.op = op;
+        this.version = version;
+        this.fields = fields;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Operation getOp() {
+        return op;
+    }
+
+    public void setOp(Operation op) {
+        this.op = op;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+
+    public void setFields(Map<String, Object> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Fold a later change to the same point into this one, so that only the net effect is published.
+     *
+     * @param next the later change.
+     * @return the combined change, or {@code null} if the two cancel out (a point created then deleted).
+     */
+    public PointChangeDTO merge(PointChangeDTO next) {
+        if (next.op == Operation.DELETED) {
+            return op == Operation.CREATED ? null : next;
+        }
+        if (next.op == Operation.UPDATED && (op == Operation.CREATED || op == Operation.UPDATED)) {
+            Map<String, Object> merged = new LinkedHashMap<>(fields);
+            merged.putAll(next.fields);
+            return new PointChangeDTO(id, op, next.version, merged);
+        }
+        return next;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PointChangeDTO{" +
+            "id=" + id +
+            ", op=" + op +
+            ", version=" + version +
+            ", fields=" + fields +
+            "}";
+    }
+}
@@ -2,7 +2,9 @@ package ai.planit.cancerlibrary.web.rest;
 
 import ai.planit.cancerlibrary.domain.User;
 import ai.planit.cancerlibrary.repository.UserRepository;
+import ai.planit.cancerlibrary.security.PasswordHashingExecutor;
 import ai.planit.cancerlibrary.security.SecurityUtils;
+import ai.planit.cancerlibrary.service.AccountService;
 import ai.planit.cancerlibrary.service.MailService;
 import ai.planit.cancerlibrary.service.UserService;
 import ai.planit.cancerlibrary.service.dto.AdminUserDTO;
@@ -11,12 +13,15 @@ import ai.planit.cancerlibrary.web.rest.errors.*;
 import ai.planit.cancerlibrary.web.rest.vm.KeyAndPasswordVM;
 import ai.planit.cancerlibrary.web.rest.vm.ManagedUserVM;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -39,12 +44,24 @@ public class AccountResource {
 
     private final UserService userService;
 
+    private final AccountService accountService;
+
     private final MailService mailService;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    public AccountResource(
+        UserRepository userRepository,
+        UserService userService,
+        AccountService accountService,
+        MailService mailService,
+        PasswordHashingExecutor passwordHashingExecutor
+    ) {
         this.userRepository = userRepository;
         this.userService = userService;
+        this.accountService = accountService;
         this.mailService = mailService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
     /**
@@ -94,15 +111,18 @@ public class AccountResource {
     /**
      * {@code GET  /account} : get the current user.
      *
-     * @return the current user.
+     * @return the current user, as an {@link AdminUserDTO} with an ETag, or with status {@code 304 (Not Modified)} if
+     * its ETag matches {@code If-None-Match}.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be returned.
      */
     @GetMapping("/account")
-    public AdminUserDTO getAccount() {
-        return userService
-            .getUserWithAuthorities()
-            .map(AdminUserDTO::new)
+    public ResponseEntity<byte[]> getAccount() {
+        AccountService.SerializedAccount account = SecurityUtils
+            .getCurrentUserLogin()
+            .flatMap(accountService::getAccount)
             .orElseThrow(() -> new AccountResourceException("User could not be found"));
+        // Already serialized: written as is, or not at all when the ETag matches If-None-Match
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(account.getEtag()).body(account.getBody());
     }
 
     /**
@@ -135,17 +155,20 @@ public class AccountResource {
     }
 
     /**
-     * {@code POST  /account/change-password} : changes the current user's password.
+     * {@code POST  /account/change-password} : changes the current user's password, on a password hashing thread.
      *
      * @param passwordChangeDto current and new password.
      * @throws InvalidPasswordException {@code 400 (Bad Request)} if the new password is incorrect.
      */
     @PostMapping(path = "/account/change-password")
-    public void changePassword(@RequestBody PasswordChangeDTO passwordChangeDto) {
+    public CompletableFuture<Void> changePassword(@RequestBody PasswordChangeDTO passwordChangeDto) {
         if (isPasswordLengthInvalid(passwordChangeDto.getNewPassword())) {
             throw new InvalidPasswordException();
         }
-        userService.changePassword(passwordChangeDto.getCurrentPassword(), passwordChangeDto.getNewPassword());
+        return passwordHashingExecutor.supplyAsync(() -> {
+            userService.changePassword(passwordChangeDto.getCurrentPassword(), passwordChangeDto.getNewPassword());
+            return null;
+        });
     }
 
     /**
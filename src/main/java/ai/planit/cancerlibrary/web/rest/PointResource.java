@@ -1,29 +1,54 @@
 package ai.planit.cancerlibrary.web.rest;
 
 import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.domain.PointSummary;
 import ai.planit.cancerlibrary.repository.PointRepository;
+import ai.planit.cancerlibrary.service.PointBulkService;
+import ai.planit.cancerlibrary.service.PointChangeService;
+import ai.planit.cancerlibrary.service.PointExportService;
+import ai.planit.cancerlibrary.service.PointWriteBehindService;
+import ai.planit.cancerlibrary.service.dto.PointBulkResultDTO;
 import ai.planit.cancerlibrary.web.rest.errors.BadRequestAlertException;
+import ai.planit.cancerlibrary.web.rest.errors.PreconditionFailedException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link ai.planit.cancerlibrary.domain.Point}.
@@ -37,48 +62,135 @@ public class PointResource {
 
     private static final String ENTITY_NAME = "point";
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String PREFER_HEADER = "Prefer";
+
+    private static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
+
+    private static final String RESPOND_ASYNC = "respond-async";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final PointRepository pointRepository;
 
-    public PointResource(PointRepository pointRepository) {
+    private final PointBulkService pointBulkService;
+
+    private final PointExportService pointExportService;
+
+    private final PointWriteBehindService pointWriteBehindService;
+
+    private final PointChangeService pointChangeService;
+
+    private final Validator validator;
+
+    public PointResource(
+        PointRepository pointRepository,
+        PointBulkService pointBulkService,
+        PointExportService pointExportService,
+        PointWriteBehindService pointWriteBehindService,
+        PointChangeService pointChangeService,
+        Validator validator
+    ) {
         this.pointRepository = pointRepository;
+        this.pointBulkService = pointBulkService;
+        this.pointExportService = pointExportService;
+        this.pointWriteBehindService = pointWriteBehindService;
+        this.pointChangeService = pointChangeService;
+        this.validator = validator;
     }
 
     /**
      * {@code POST  /points} : Create a new point.
+     * <p>
+     * With {@code Prefer: respond-async}, and when write-behind is enabled, the point is queued and written later.
      *
      * @param point the point to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new point, or with status {@code 400 (Bad Request)} if the point has already an ID.
+     * @param prefer the preferences of the client.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new point, or with status {@code 400 (Bad Request)} if the point has already an ID or a version,
+     * or with status {@code 202 (Accepted)} if the point is queued, or with status {@code 429 (Too Many Requests)} if the queue is full.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/points")
-    public ResponseEntity<Point> createPoint(@Valid @RequestBody Point point) throws URISyntaxException {
+    public ResponseEntity<Point> createPoint(
+        @Valid @RequestBody Point point,
+        @RequestHeader(value = PREFER_HEADER, required = false) String prefer
+    ) throws URISyntaxException {
         log.debug("REST request to save Point : {}", point);
         if (point.getId() != null) {
             throw new BadRequestAlertException("A new point cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        if (point.getVersion() != null) {
+            // Saved with a version, the point would be merged instead of persisted, and its ETag chosen by the client
+            throw new BadRequestAlertException("A new point cannot already have a version", ENTITY_NAME, "versionexists");
+        }
+        if (isRespondAsync(prefer)) {
+            pointWriteBehindService.create(point);
+            return accepted();
+        }
         Point result = pointRepository.save(point);
+        pointChangeService.created(result);
         return ResponseEntity
             .created(new URI("/api/points/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .eTag(etag(result))
+            .body(result);
+    }
+
+    /**
+     * {@code POST  /points/_bulk} : Create many new points.
+     * <p>
+     * The body is streamed and written in chunks, each in its own transaction: rows that are invalid, or belong to a
+     * chunk rejected by the database, are reported in the response and the others are kept.
+     *
+     * @param body a JSON array or newline-delimited JSON stream of points without IDs or versions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import summary and rejected rows.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/points/_bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<PointBulkResultDTO> createPoints(InputStream body) throws IOException {
+        log.debug("REST request to bulk save Points");
+        PointBulkResultDTO result = pointBulkService.createAll(body);
+        return ResponseEntity
+            .ok()
+            .headers(
+                HeaderUtil.createAlert(
+                    applicationName,
+                    applicationName + "." + ENTITY_NAME + ".bulkCreated",
+                    String.valueOf(result.getCreated())
+                )
+            )
             .body(result);
     }
 
     /**
      * {@code PUT  /points/:id} : Updates an existing point.
+     * <p>
+     * The point is written with a single statement, without being read first, and only if it has the version given by
+     * the {@code If-Match} header or by the {@code version} of the body, when present. With {@code Prefer: respond-async},
+     * and when write-behind is enabled, the update is queued and these conditions are checked when it is written.
      *
      * @param id the id of the point to save.
+     * @param ifMatch the ETags of the versions of the point the update applies to.
+     * @param prefer the preferences of the client.
      * @param point the point to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated point,
      * or with status {@code 400 (Bad Request)} if the point is not valid,
+     * or with status {@code 409 (Conflict)} if the {@code version} of the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if no ETag of {@code If-Match} is the current one,
+     * or with status {@code 202 (Accepted)} if the update is queued, or with status {@code 429 (Too Many Requests)} if the queue is full,
      * or with status {@code 500 (Internal Server Error)} if the point couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/points/{id}")
-    public ResponseEntity<Point> updatePoint(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Point point)
-        throws URISyntaxException {
+    public ResponseEntity<Point> updatePoint(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestHeader(value = PREFER_HEADER, required = false) String prefer,
+        @Valid @RequestBody Point point
+    ) throws URISyntaxException {
         log.debug("REST request to update Point : {}, {}", id, point);
         if (point.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -87,31 +199,34 @@ public class PointResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!pointRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Point result = pointRepository.save(point);
-        return ResponseEntity
-            .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, point.getId().toString()))
-            .body(result);
+        return update(point, false, ifMatch, prefer);
     }
 
     /**
      * {@code PATCH  /points/:id} : Partial updates given fields of an existing point, field will ignore if it is null
+     * <p>
+     * The point is written with a single statement, without being read first, and only if it has the version given by
+     * the {@code If-Match} header or by the {@code version} of the body, when present. With {@code Prefer: respond-async},
+     * and when write-behind is enabled, the update is queued and these conditions are checked when it is written.
      *
      * @param id the id of the point to save.
+     * @param ifMatch the ETags of the versions of the point the update applies to.
+     * @param prefer the preferences of the client.
      * @param point the point to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated point,
      * or with status {@code 400 (Bad Request)} if the point is not valid,
      * or with status {@code 404 (Not Found)} if the point is not found,
+     * or with status {@code 409 (Conflict)} if the {@code version} of the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if no ETag of {@code If-Match} is the current one,
+     * or with status {@code 202 (Accepted)} if the update is queued, or with status {@code 429 (Too Many Requests)} if the queue is full,
      * or with status {@code 500 (Internal Server Error)} if the point couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/points/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Point> partialUpdatePoint(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestHeader(value = PREFER_HEADER, required = false) String prefer,
         @NotNull @RequestBody Point point
     ) throws URISyntaxException {
         log.debug("REST request to partial update Point partially : {}, {}", id, point);
@@ -122,40 +237,207 @@ public class PointResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!pointRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        Set<ConstraintViolation<Point>> violations = new HashSet<>();
+        if (point.getTitle() != null) {
+            violations.addAll(validator.validateValue(Point.class, "title", point.getTitle()));
+        }
+        if (point.getDescription() != null) {
+            violations.addAll(validator.validateValue(Point.class, "description", point.getDescription()));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
         }
 
-        Optional<Point> result = pointRepository
-            .findById(point.getId())
-            .map(existingPoint -> {
-                if (point.getTitle() != null) {
-                    existingPoint.setTitle(point.getTitle());
-                }
-                if (point.getDescription() != null) {
-                    existingPoint.setDescription(point.getDescription());
-                }
+        return update(point, true, ifMatch, prefer);
+    }
+
+    /**
+     * Update the point in a single statement, which only applies to the versions allowed by {@code If-Match} and by the
+     * version of the body. When no row is updated, the current version tells which condition failed.
+     */
+    private ResponseEntity<Point> update(Point point, boolean partial, String ifMatch, String prefer) {
+        Set<Long> ifMatchVersions = parseIfMatch(ifMatch);
+        Set<Long> versions = ifMatchVersions;
+        if (point.getVersion() != null) {
+            versions = ifMatchVersions == null || ifMatchVersions.contains(point.getVersion()) ? Set.of(point.getVersion()) : Set.of();
+        }
+        if (versions != null && versions.isEmpty()) {
+            throw updateFailure(point.getId(), ifMatchVersions);
+        }
+        if (isRespondAsync(prefer)) {
+            pointWriteBehindService.update(point, partial, versions);
+            return accepted();
+        }
+
+        Point updated = pointRepository.update(point, partial, versions).orElseThrow(() -> updateFailure(point.getId(), ifMatchVersions));
+        pointChangeService.updated(updated, partial, point);
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, point.getId().toString()))
+            .eTag(etag(updated))
+            .body(updated);
+    }
+
+    private RuntimeException updateFailure(Long id, Set<Long> ifMatchVersions) {
+        Optional<Long> currentVersion = pointRepository.findVersionById(id);
+        if (currentVersion.isEmpty()) {
+            return new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        if (ifMatchVersions != null && !ifMatchVersions.contains(currentVersion.get())) {
+            return new PreconditionFailedException("Point was modified since the given ETag");
+        }
+        return new ObjectOptimisticLockingFailureException(Point.class, id);
+    }
 
-                return existingPoint;
-            })
-            .map(pointRepository::save);
+    private boolean isRespondAsync(String prefer) {
+        if (prefer == null || !pointWriteBehindService.isEnabled()) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            if (preference.split(";")[0].trim().equalsIgnoreCase(RESPOND_ASYNC)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, point.getId().toString())
-        );
+    private static ResponseEntity<Point> accepted() {
+        return ResponseEntity.accepted().header(PREFERENCE_APPLIED_HEADER, RESPOND_ASYNC).build();
     }
 
     /**
      * {@code GET  /points} : get all the points.
+     * <p>
+     * Without a {@code cursor} the points are paginated by offset, with the total count in the headers. With a
+     * {@code cursor} (empty for the first slice) they are read in id order after the cursor position, without counting:
+     * the cursor of the next slice is returned in the {@code X-Next-Cursor} and {@code Link} headers, which are absent on
+     * the last slice. Deep pages cost the same as the first one in this mode.
+     * <p>
+     * Only the requested {@code fields} are read from the database, as plain values rather than managed entities; the
+     * {@code id} is always included, and the fields that are not requested or are {@code null} are left out.
+     * <p>
+     * The response has an ETag derived from the values it contains, so a poll with a matching {@code If-None-Match}
+     * header gets a {@code 304 (Not Modified)} without a body.
      *
-     * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of points in body.
+     * @param pageable the pagination information; only the page size is used with a cursor.
+     * @param cursor the opaque continuation token returned with the previous slice.
+     * @param fields the comma-separated fields to return, among {@code id}, {@code title}, {@code description} and
+     * {@code version}; all of them by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of points in body, or with status
+     * {@code 304 (Not Modified)} if it matches {@code If-None-Match}, or with status {@code 400 (Bad Request)} if a field
+     * is unknown.
      */
     @GetMapping("/points")
-    public ResponseEntity<List<Point>> getAllPoints(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<PointSummary>> getAllPoints(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "fields", required = false) List<String> fields
+    ) {
+        List<String> selectedFields = selectFields(fields);
+        if (cursor != null) {
+            return getPointsAfterCursor(cursor, selectedFields, pageable.getPageSize());
+        }
         log.debug("REST request to get a page of Points");
-        Page<Point> page = pointRepository.findAll(pageable);
+        Page<PointSummary> page = pointRepository.findAllFields(selectedFields, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        // The pagination headers change with the total count, so it is part of the ETag
+        return ResponseEntity.ok().headers(headers).eTag(etag(page.getContent(), page.getTotalElements())).body(page.getContent());
+    }
+
+    private ResponseEntity<List<PointSummary>> getPointsAfterCursor(String cursor, List<String> fields, int size) {
+        log.debug("REST request to get a slice of Points after cursor : {}", cursor);
+        Slice<PointSummary> slice = pointRepository.findFieldsByIdGreaterThan(fields, decodeCursor(cursor), size);
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            List<PointSummary> content = slice.getContent();
+            String nextCursor = encodeCursor(content.get(content.size() - 1).getId());
+            String nextLink = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQueryParam("cursor", nextCursor)
+                .replaceQueryParam("page")
+                .toUriString();
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+            headers.add(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).eTag(etag(slice.getContent(), slice.hasNext() ? 1 : 0)).body(slice.getContent());
+    }
+
+    private static List<String> selectFields(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return PointRepository.FIELDS;
+        }
+        List<String> selectedFields = new ArrayList<>(PointRepository.FIELDS.size());
+        for (String field : PointRepository.FIELDS) {
+            if (field.equals("id") || fields.contains(field)) {
+                selectedFields.add(field);
+            }
+        }
+        if (!PointRepository.FIELDS.containsAll(fields)) {
+            throw new BadRequestAlertException("Unknown field", ENTITY_NAME, "fieldsinvalid");
+        }
+        return selectedFields;
+    }
+
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    /**
+     * {@code GET  /points/_export} : export all the points.
+     * <p>
+     * The points are written to the response while they are read from the database, so the export uses the same amount
+     * of memory whatever the size of the table.
+     *
+     * @param format the output format, {@code ndjson} (the default) or {@code csv}.
+     * @param response the response the points are written to, with status {@code 200 (OK)}, or with status
+     * {@code 400 (Bad Request)} if the format is not supported.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/points/_export")
+    @Transactional(readOnly = true)
+    public void exportPoints(@RequestParam(value = "format", defaultValue = "ndjson") String format, HttpServletResponse response)
+        throws IOException {
+        log.debug("REST request to export Points as {}", format);
+        PointExportService.Format exportFormat;
+        try {
+            exportFormat = PointExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid");
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"points." + exportFormat.getExtension() + "\"");
+        pointExportService.export(exportFormat, response.getOutputStream());
+    }
+
+    /**
+     * {@code SEARCH  /_search/points?query=:query} : search for the points corresponding to the query, best matches
+     * first.
+     *
+     * @param query the words to look for in the title and description of the points.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matching points in body.
+     */
+    @GetMapping("/_search/points")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Point>> searchPoints(
+        @RequestParam String query,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of Points for query {}", query);
+        Page<Point> page = pointRepository.search(query, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
@@ -164,13 +446,18 @@ public class PointResource {
      * {@code GET  /points/:id} : get the "id" point.
      *
      * @param id the id of the point to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the point, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the point, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if its ETag matches {@code If-None-Match}.
      */
     @GetMapping("/points/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Point> getPoint(@PathVariable Long id) {
         log.debug("REST request to get Point : {}", id);
         Optional<Point> point = pointRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(point);
+        // Spring answers 304 without serializing the body when the ETag matches If-None-Match
+        return point
+            .map(response -> ResponseEntity.ok().eTag(etag(response)).body(response))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -183,9 +470,57 @@ public class PointResource {
     public ResponseEntity<Void> deletePoint(@PathVariable Long id) {
         log.debug("REST request to delete Point : {}", id);
         pointRepository.deleteById(id);
+        pointChangeService.deleted(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static String etag(Point point) {
+        return "\"" + point.getVersion() + "\"";
+    }
+
+    private static String etag(List<PointSummary> points, long discriminator) {
+        StringBuilder values = new StringBuilder().append(discriminator);
+        for (PointSummary point : points) {
+            appendValue(values, point.getId());
+            appendValue(values, point.getTitle());
+            appendValue(values, point.getDescription());
+            appendValue(values, point.getVersion());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(values.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static void appendValue(StringBuilder values, Object value) {
+        // Length-prefixed, so that no two different lists of values hash the same input
+        String text = String.valueOf(value);
+        values.append(';').append(text.length()).append(':').append(text);
+    }
+
+    /**
+     * Parse the versions of the strong ETags of the {@code If-Match} header; weak ETags never match (RFC 7232).
+     *
+     * @return the versions, or {@code null} if any version matches.
+     */
+    private static Set<Long> parseIfMatch(String ifMatch) {
+        if (!StringUtils.hasText(ifMatch)) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*")) {
+                return null;
+            }
+            if (trimmed.length() > 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(trimmed.substring(1, trimmed.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // Not an ETag of this resource, it cannot match
+                }
+            }
+        }
+        return versions;
+    }
 }
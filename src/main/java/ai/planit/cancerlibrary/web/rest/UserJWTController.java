@@ -1,13 +1,19 @@
 package ai.planit.cancerlibrary.web.rest;
 
+import ai.planit.cancerlibrary.security.PasswordHashingExecutor;
 import ai.planit.cancerlibrary.security.jwt.JWTFilter;
-import ai.planit.cancerlibrary.security.jwt.TokenProvider;
+import ai.planit.cancerlibrary.security.jwt.JwtAuthenticationToken;
+import ai.planit.cancerlibrary.service.RefreshTokenService;
 import ai.planit.cancerlibrary.web.rest.vm.LoginVM;
+import ai.planit.cancerlibrary.web.rest.vm.RefreshTokenVM;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.concurrent.CompletableFuture;
 import javax.validation.Valid;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
@@ -21,39 +27,90 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api")
 public class UserJWTController {
 
-    private final TokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
-        this.tokenProvider = tokenProvider;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    public UserJWTController(
+        RefreshTokenService refreshTokenService,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        PasswordHashingExecutor passwordHashingExecutor
+    ) {
+        this.refreshTokenService = refreshTokenService;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
+    /**
+     * {@code POST  /authenticate} : authenticate the user, on a password hashing thread, and open a session.
+     *
+     * @param loginVM the credentials of the user.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the access and refresh tokens, or
+     * with status {@code 503 (Service Unavailable)} if too many logins are in progress.
+     */
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public CompletableFuture<ResponseEntity<JWTToken>> authorize(@Valid @RequestBody LoginVM loginVM) {
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
         );
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.createToken(authentication, loginVM.isRememberMe());
+        return passwordHashingExecutor.supplyAsync(() -> {
+            Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+            return toResponse(refreshTokenService.createSession(authentication, loginVM.isRememberMe()));
+        });
+    }
+
+    /**
+     * {@code POST  /authenticate/refresh} : renew the tokens of a session. The refresh token can only be used once.
+     *
+     * @param refreshTokenVM the refresh token of the session.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the new access and refresh tokens.
+     * @throws BadCredentialsException {@code 401 (Unauthorized)} if the refresh token is invalid, expired or already used.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        return refreshTokenService
+            .refresh(refreshTokenVM.getRefreshToken())
+            .map(this::toResponse)
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+    }
+
+    /**
+     * {@code POST  /logout} : revoke the session of the current access token, and its refresh tokens.
+     *
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken && ((JwtAuthenticationToken) authentication).getSessionId() != null) {
+            refreshTokenService.revokeSession(((JwtAuthenticationToken) authentication).getSessionId());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<JWTToken> toResponse(RefreshTokenService.Tokens tokens) {
         HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + tokens.getAccessToken());
+        return new ResponseEntity<>(new JWTToken(tokens.getAccessToken(), tokens.getRefreshToken()), httpHeaders, HttpStatus.OK);
     }
 
     /**
      * Object to return as body in JWT Authentication.
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     static class JWTToken {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -64,5 +121,14 @@ public class UserJWTController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
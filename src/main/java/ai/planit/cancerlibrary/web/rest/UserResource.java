@@ -1,5 +1,6 @@
 package ai.planit.cancerlibrary.web.rest;
 
+import ai.planit.cancerlibrary.config.ApplicationProperties;
 import ai.planit.cancerlibrary.config.Constants;
 import ai.planit.cancerlibrary.domain.User;
 import ai.planit.cancerlibrary.repository.UserRepository;
@@ -14,7 +15,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.Collections;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -87,10 +92,22 @@ public class UserResource {
 
     private final MailService mailService;
 
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    private final Validator validator;
+
+    private final int bulkMaxSize;
+
+    public UserResource(
+        UserService userService,
+        UserRepository userRepository,
+        MailService mailService,
+        Validator validator,
+        ApplicationProperties applicationProperties
+    ) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.mailService = mailService;
+        this.validator = validator;
+        this.bulkMaxSize = applicationProperties.getUser().getBulk().getMaxSize();
     }
 
     /**
@@ -155,6 +172,137 @@ public class UserResource {
         );
     }
 
+    /**
+     * {@code POST  /admin/users/_bulk}  : Creates new users.
+     * <p>
+     * The users are created in one transaction, as by {@code POST /admin/users}: either all or none of them.
+     *
+     * @param userDTOs the users to create, at most {@code application.user.bulk.max-size}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the new users, or with status {@code 400 (Bad Request)} if a user is not valid.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a user already has an ID, or if there are no or too many users.
+     * @throws LoginAlreadyUsedException {@code 400 (Bad Request)} if a login is already in use.
+     * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if an email is already in use.
+     */
+    @PostMapping("/users/_bulk")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<AdminUserDTO>> createUsers(@RequestBody List<AdminUserDTO> userDTOs) {
+        log.debug("REST request to bulk save {} Users", userDTOs.size());
+        checkBulk(userDTOs);
+        if (userDTOs.stream().anyMatch(userDTO -> userDTO.getId() != null)) {
+            throw new BadRequestAlertException("A new user cannot already have an ID", "userManagement", "idexists");
+        }
+        List<User> newUsers = userService.createUsers(userDTOs);
+        newUsers.forEach(mailService::sendCreationEmail);
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createAlert(applicationName, "userManagement.bulkCreated", Integer.toString(newUsers.size())))
+            .body(newUsers.stream().map(AdminUserDTO::new).collect(Collectors.toList()));
+    }
+
+    /**
+     * {@code PUT /admin/users/_bulk} : Updates existing users.
+     * <p>
+     * The users are updated in one transaction, as by {@code PUT /admin/users}; those which do not exist are skipped.
+     *
+     * @param userDTOs the users to update, at most {@code application.user.bulk.max-size}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated users.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a user has no ID, or if there are no or too many users.
+     * @throws LoginAlreadyUsedException {@code 400 (Bad Request)} if a login is already in use.
+     * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if an email is already in use.
+     */
+    @PutMapping("/users/_bulk")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<AdminUserDTO>> updateUsers(@RequestBody List<AdminUserDTO> userDTOs) {
+        log.debug("REST request to bulk update {} Users", userDTOs.size());
+        checkBulk(userDTOs);
+        if (userDTOs.stream().anyMatch(userDTO -> userDTO.getId() == null)) {
+            throw new BadRequestAlertException("Invalid id", "userManagement", "idnull");
+        }
+        List<AdminUserDTO> updatedUsers = userService.updateUsers(userDTOs);
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createAlert(applicationName, "userManagement.bulkUpdated", Integer.toString(updatedUsers.size())))
+            .body(updatedUsers);
+    }
+
+    /**
+     * {@code POST /admin/users/_bulk/deactivate} : Deactivates users.
+     *
+     * @param logins the logins of the users to deactivate, at most {@code application.user.bulk.max-size}.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if there are no or too many logins, or a {@code null} one.
+     */
+    @PostMapping("/users/_bulk/deactivate")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> deactivateUsers(@RequestBody List<String> logins) {
+        log.debug("REST request to deactivate {} Users", logins.size());
+        checkBulkSize(logins.size());
+        if (logins.contains(null)) {
+            throw new BadRequestAlertException("Invalid login", "userManagement", "usernull");
+        }
+        int deactivated = userService.deactivateUsers(logins);
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createAlert(applicationName, "userManagement.bulkDeactivated", Integer.toString(deactivated)))
+            .build();
+    }
+
+    /**
+     * Check the users of a bulk request, then that their logins and emails are not used by other users, with one query
+     * for all the logins and one for all the emails.
+     */
+    private void checkBulk(List<AdminUserDTO> userDTOs) {
+        checkBulkSize(userDTOs.size());
+        if (userDTOs.contains(null)) {
+            throw new BadRequestAlertException("Invalid user", "userManagement", "usernull");
+        }
+        Set<ConstraintViolation<AdminUserDTO>> violations = new HashSet<>();
+        userDTOs.forEach(userDTO -> violations.addAll(validator.validate(userDTO)));
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        Map<String, Long> idsByLogin = new HashMap<>();
+        Map<String, Long> idsByEmail = new HashMap<>();
+        for (AdminUserDTO userDTO : userDTOs) {
+            if (idsByLogin.containsKey(userDTO.getLogin().toLowerCase())) {
+                throw new LoginAlreadyUsedException();
+            }
+            idsByLogin.put(userDTO.getLogin().toLowerCase(), userDTO.getId());
+            if (userDTO.getEmail() != null) {
+                if (idsByEmail.containsKey(userDTO.getEmail().toLowerCase())) {
+                    throw new EmailAlreadyUsedException();
+                }
+                idsByEmail.put(userDTO.getEmail().toLowerCase(), userDTO.getId());
+            }
+        }
+        for (User existingUser : userRepository.findAllByLoginIn(idsByLogin.keySet())) {
+            if (!existingUser.getId().equals(idsByLogin.get(existingUser.getLogin()))) {
+                throw new LoginAlreadyUsedException();
+            }
+        }
+        if (!idsByEmail.isEmpty()) {
+            for (User existingUser : userRepository.findAllByLowercaseEmailIn(idsByEmail.keySet())) {
+                if (!existingUser.getId().equals(idsByEmail.get(existingUser.getEmail().toLowerCase()))) {
+                    throw new EmailAlreadyUsedException();
+                }
+            }
+        }
+    }
+
+    private void checkBulkSize(int size) {
+        if (size == 0) {
+            throw new BadRequestAlertException("At least one user must be changed", "userManagement", "bulkempty");
+        }
+        if (size > bulkMaxSize) {
+            throw new BadRequestAlertException(
+                "At most " + bulkMaxSize + " users can be changed at once",
+                "userManagement",
+                "bulktoolarge"
+            );
+        }
+    }
+
     /**
      * {@code GET /admin/users} : get all users with all the details - calling this are only allowed for the administrators.
      *
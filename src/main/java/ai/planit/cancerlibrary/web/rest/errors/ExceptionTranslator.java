@@ -14,6 +14,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -149,6 +150,39 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(new InvalidPasswordException(), request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handlePointQueueFullException(
+        ai.planit.cancerlibrary.service.PointQueueFullException ex,
+        NativeWebRequest request
+    ) {
+        Problem problem = Problem.builder().withStatus(Status.TOO_MANY_REQUESTS).withDetail(ex.getMessage()).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handlePointWriteBehindUnavailableException(
+        ai.planit.cancerlibrary.service.PointWriteBehindUnavailableException ex,
+        NativeWebRequest request
+    ) {
+        Problem problem = Problem.builder().withStatus(Status.SERVICE_UNAVAILABLE).withDetail(ex.getMessage()).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handlePasswordHashingUnavailableException(
+        ai.planit.cancerlibrary.security.PasswordHashingUnavailableException ex,
+        NativeWebRequest request
+    ) {
+        Problem problem = Problem.builder().withStatus(Status.SERVICE_UNAVAILABLE).withDetail(ex.getMessage()).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return create(ex, problem, request, headers);
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleBadRequestAlertException(BadRequestAlertException ex, NativeWebRequest request) {
         return create(
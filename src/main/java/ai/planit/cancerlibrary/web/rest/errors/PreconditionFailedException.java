@@ -0,0 +1,26 @@
+package ai.planit.cancerlibrary.web.rest.errors;
+
+import java.util.Map;
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+/**
+ * Thrown when the {@code If-Match} precondition of a request does not hold, because the resource was changed since the
+ * client read it.
+ */
+public class PreconditionFailedException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String defaultMessage) {
+        super(
+            ErrorConstants.DEFAULT_TYPE,
+            defaultMessage,
+            Status.PRECONDITION_FAILED,
+            null,
+            null,
+            null,
+            Map.of("message", ErrorConstants.ERR_CONCURRENCY_FAILURE)
+        );
+    }
+}
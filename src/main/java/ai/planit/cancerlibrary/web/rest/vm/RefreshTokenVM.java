@@ -0,0 +1,32 @@
+package ai.planit.cancerlibrary.web.rest.vm;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * View Model object for storing the refresh token of a session.
+ */
+public class RefreshTokenVM {
+
+    @NotNull
+    @Size(min = 1, max = 100)
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RefreshTokenVM{" +
+            "refreshToken='*****'" +
+            '}';
+    }
+}
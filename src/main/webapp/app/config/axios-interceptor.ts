@@ -5,9 +5,44 @@ const TIMEOUT = 1 * 60 * 1000;
 axios.defaults.timeout = TIMEOUT;
 axios.defaults.baseURL = SERVER_API_URL;
 
+const AUTH_TOKEN_KEY = 'jhi-authenticationToken';
+const REFRESH_TOKEN_KEY = 'jhi-refreshToken';
+
+let refreshing: Promise<boolean> | null = null;
+
+/**
+ * Renews the tokens with the refresh token of the session, once for all the requests failing at the same time.
+ */
+const refreshTokens = (): Promise<boolean> => {
+  const storage = Storage.local.get(REFRESH_TOKEN_KEY) ? Storage.local : Storage.session;
+  const refreshToken = storage.get(REFRESH_TOKEN_KEY);
+  if (!refreshToken) {
+    return Promise.resolve(false);
+  }
+  if (!refreshing) {
+    refreshing = axios
+      .post<any>('api/authenticate/refresh', { refresh_token: refreshToken })
+      .then(response => {
+        storage.set(AUTH_TOKEN_KEY, response.data.id_token);
+        storage.set(REFRESH_TOKEN_KEY, response.data.refresh_token);
+        return true;
+      })
+      .catch(() => {
+        storage.remove(REFRESH_TOKEN_KEY);
+        return false;
+      })
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+};
+
+const isAuthenticationRequest = (url: string) => url && url.indexOf('api/authenticate') !== -1;
+
 const setupAxiosInterceptors = onUnauthenticated => {
   const onRequestSuccess = config => {
-    const token = Storage.local.get('jhi-authenticationToken') || Storage.session.get('jhi-authenticationToken');
+    const token = Storage.local.get(AUTH_TOKEN_KEY) || Storage.session.get(AUTH_TOKEN_KEY);
     if (token) {
       config.headers.Authorization = `Bearer ${token}`;
     }
@@ -16,6 +51,16 @@ const setupAxiosInterceptors = onUnauthenticated => {
   const onResponseSuccess = response => response;
   const onResponseError = err => {
     const status = err.status || (err.response ? err.response.status : 0);
+    const config = err.config;
+    if (status === 401 && config && !config.retried && !isAuthenticationRequest(config.url)) {
+      return refreshTokens().then(refreshed => {
+        if (refreshed) {
+          return axios.request({ ...config, retried: true });
+        }
+        onUnauthenticated();
+        return Promise.reject(err);
+      });
+    }
     if (status === 403 || status === 401) {
       onUnauthenticated();
     }
@@ -6,10 +6,12 @@ import { Storage } from 'react-jhipster';
 
 import { websocketActivityMessage } from 'app/modules/administration/administration.reducer';
 import { getAccount, logoutSession } from 'app/shared/reducers/authentication';
+import { receivePointChanges } from 'app/entities/point/point.reducer';
 
 let stompClient = null;
 
 let subscriber = null;
+let pointSubscriber = null;
 let connection: Promise<any>;
 let connectedPromise: any = null;
 let listener: Observable<any>;
@@ -41,6 +43,14 @@ const subscribe = () => {
   });
 };
 
+const subscribePoints = store => {
+  connection.then(() => {
+    pointSubscriber = stompClient.subscribe('/topic/points', data => {
+      store.dispatch(receivePointChanges(JSON.parse(data.body)));
+    });
+  });
+};
+
 const connect = () => {
   if (connectedPromise !== null || alreadyConnectedOnce) {
     // the connection is already being established
@@ -86,12 +96,19 @@ const unsubscribe = () => {
   if (subscriber !== null) {
     subscriber.unsubscribe();
   }
+  if (pointSubscriber !== null) {
+    pointSubscriber.unsubscribe();
+    pointSubscriber = null;
+  }
   listener = createListener();
 };
 
 export default store => next => action => {
   if (getAccount.fulfilled.match(action)) {
     connect();
+    if (!alreadyConnectedOnce) {
+      subscribePoints(store);
+    }
     const isAdmin = action.payload.data.authorities.includes('ROLE_ADMIN');
     if (!alreadyConnectedOnce && isAdmin) {
       subscribe();
@@ -4,7 +4,16 @@ import configureStore from 'redux-mock-store';
 import thunk from 'redux-thunk';
 import sinon from 'sinon';
 
-import reducer, { createEntity, deleteEntity, getEntities, getEntity, updateEntity, partialUpdateEntity, reset } from './point.reducer';
+import reducer, {
+  createEntity,
+  deleteEntity,
+  getEntities,
+  getEntity,
+  updateEntity,
+  partialUpdateEntity,
+  pointChangesReceived,
+  reset,
+} from './point.reducer';
 import { EntityState } from 'app/shared/reducers/reducer.utils';
 import { IPoint, defaultValue } from 'app/shared/model/point.model';
 
@@ -164,6 +173,31 @@ describe('Entities reducer tests', () => {
         updateSuccess: true,
       });
     });
+
+    it('should apply the published changes', () => {
+      const state = {
+        ...initialState,
+        entities: [
+          { id: 1, title: 'one', version: 0 },
+          { id: 2, title: 'two', version: 0 },
+        ],
+        entity: { id: 1, title: 'one', version: 0 },
+        totalItems: 2,
+      };
+      const toTest = reducer(
+        state,
+        pointChangesReceived([
+          { id: 1, op: 'UPDATED', version: 1, fields: { title: 'first' } },
+          { id: 2, op: 'DELETED' },
+          { id: 3, op: 'CREATED', version: 0, fields: { title: 'three' } },
+        ])
+      );
+      expect(toTest).toMatchObject({
+        entities: [{ id: 1, title: 'first', version: 1 }],
+        entity: { id: 1, title: 'first', version: 1 },
+        totalItems: 2,
+      });
+    });
   });
 
   describe('Actions', () => {
@@ -215,9 +249,6 @@ describe('Entities reducer tests', () => {
         {
           type: createEntity.pending.type,
         },
-        {
-          type: getEntities.pending.type,
-        },
         {
           type: createEntity.fulfilled.type,
           payload: resolvedObject,
@@ -226,7 +257,6 @@ describe('Entities reducer tests', () => {
       await store.dispatch(createEntity({ id: 456 }));
       expect(store.getActions()[0]).toMatchObject(expectedActions[0]);
       expect(store.getActions()[1]).toMatchObject(expectedActions[1]);
-      expect(store.getActions()[2]).toMatchObject(expectedActions[2]);
     });
 
     it('dispatches UPDATE_POINT actions', async () => {
@@ -234,9 +264,6 @@ describe('Entities reducer tests', () => {
         {
           type: updateEntity.pending.type,
         },
-        {
-          type: getEntities.pending.type,
-        },
         {
           type: updateEntity.fulfilled.type,
           payload: resolvedObject,
@@ -245,7 +272,6 @@ describe('Entities reducer tests', () => {
       await store.dispatch(updateEntity({ id: 456 }));
       expect(store.getActions()[0]).toMatchObject(expectedActions[0]);
       expect(store.getActions()[1]).toMatchObject(expectedActions[1]);
-      expect(store.getActions()[2]).toMatchObject(expectedActions[2]);
     });
 
     it('dispatches PARTIAL_UPDATE_POINT actions', async () => {
@@ -253,9 +279,6 @@ describe('Entities reducer tests', () => {
         {
           type: partialUpdateEntity.pending.type,
         },
-        {
-          type: getEntities.pending.type,
-        },
         {
           type: partialUpdateEntity.fulfilled.type,
           payload: resolvedObject,
@@ -264,7 +287,6 @@ describe('Entities reducer tests', () => {
       await store.dispatch(partialUpdateEntity({ id: 123 }));
       expect(store.getActions()[0]).toMatchObject(expectedActions[0]);
       expect(store.getActions()[1]).toMatchObject(expectedActions[1]);
-      expect(store.getActions()[2]).toMatchObject(expectedActions[2]);
     });
 
     it('dispatches DELETE_POINT actions', async () => {
@@ -272,9 +294,6 @@ describe('Entities reducer tests', () => {
         {
           type: deleteEntity.pending.type,
         },
-        {
-          type: getEntities.pending.type,
-        },
         {
           type: deleteEntity.fulfilled.type,
           payload: resolvedObject,
@@ -283,7 +302,6 @@ describe('Entities reducer tests', () => {
       await store.dispatch(deleteEntity(42666));
       expect(store.getActions()[0]).toMatchObject(expectedActions[0]);
       expect(store.getActions()[1]).toMatchObject(expectedActions[1]);
-      expect(store.getActions()[2]).toMatchObject(expectedActions[2]);
     });
 
     it('dispatches RESET actions', async () => {
@@ -1,9 +1,11 @@
 import axios from 'axios';
-import { createAsyncThunk, isFulfilled, isPending, isRejected } from '@reduxjs/toolkit';
+import { createAsyncThunk, isFulfilled, isPending, isRejected, PayloadAction } from '@reduxjs/toolkit';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
 import { IQueryParams, createEntitySlice, EntityState, serializeAxiosError } from 'app/shared/reducers/reducer.utils';
 import { IPoint, defaultValue } from 'app/shared/model/point.model';
+import { IPointChange } from 'app/shared/model/point-change.model';
+import { AppThunk } from 'app/config/store';
 
 const initialState: EntityState<IPoint> = {
   loading: false,
@@ -17,9 +19,13 @@ const initialState: EntityState<IPoint> = {
 
 const apiUrl = 'api/points';
 
+// The query of the list on display, reloaded when the server asks for a refresh
+let lastQuery: IQueryParams = {};
+
 // Actions
 
 export const getEntities = createAsyncThunk('point/fetch_entity_list', async ({ page, size, sort }: IQueryParams) => {
+  lastQuery = { page, size, sort };
   const requestUrl = `${apiUrl}${sort ? `?page=${page}&size=${size}&sort=${sort}&` : '?'}cacheBuster=${new Date().getTime()}`;
   return axios.get<IPoint[]>(requestUrl);
 });
@@ -35,9 +41,8 @@ export const getEntity = createAsyncThunk(
 
 export const createEntity = createAsyncThunk(
   'point/create_entity',
-  async (entity: IPoint, thunkAPI) => {
+  async (entity: IPoint) => {
     const result = await axios.post<IPoint>(apiUrl, cleanEntity(entity));
-    thunkAPI.dispatch(getEntities({}));
     return result;
   },
   { serializeError: serializeAxiosError }
@@ -45,9 +50,8 @@ export const createEntity = createAsyncThunk(
 
 export const updateEntity = createAsyncThunk(
   'point/update_entity',
-  async (entity: IPoint, thunkAPI) => {
+  async (entity: IPoint) => {
     const result = await axios.put<IPoint>(`${apiUrl}/${entity.id}`, cleanEntity(entity));
-    thunkAPI.dispatch(getEntities({}));
     return result;
   },
   { serializeError: serializeAxiosError }
@@ -55,9 +59,8 @@ export const updateEntity = createAsyncThunk(
 
 export const partialUpdateEntity = createAsyncThunk(
   'point/partial_update_entity',
-  async (entity: IPoint, thunkAPI) => {
+  async (entity: IPoint) => {
     const result = await axios.patch<IPoint>(`${apiUrl}/${entity.id}`, cleanEntity(entity));
-    thunkAPI.dispatch(getEntities({}));
     return result;
   },
   { serializeError: serializeAxiosError }
@@ -65,10 +68,9 @@ export const partialUpdateEntity = createAsyncThunk(
 
 export const deleteEntity = createAsyncThunk(
   'point/delete_entity',
-  async (id: string | number, thunkAPI) => {
+  async (id: string | number) => {
     const requestUrl = `${apiUrl}/${id}`;
     const result = await axios.delete<IPoint>(requestUrl);
-    thunkAPI.dispatch(getEntities({}));
     return result;
   },
   { serializeError: serializeAxiosError }
@@ -79,6 +81,32 @@ export const deleteEntity = createAsyncThunk(
 export const PointSlice = createEntitySlice({
   name: 'point',
   initialState,
+  reducers: {
+    /**
+     * Apply the changes published on /topic/points. Created points only change the count, as the page they belong to
+     * depends on the sort order.
+     */
+    pointChangesReceived(state, action: PayloadAction<IPointChange[]>) {
+      action.payload.forEach(change => {
+        const index = state.entities.findIndex(point => point.id === change.id);
+        if (change.op === 'CREATED') {
+          state.totalItems++;
+        } else if (change.op === 'UPDATED') {
+          if (index >= 0) {
+            state.entities[index] = { ...state.entities[index], ...change.fields, version: change.version };
+          }
+          if (state.entity.id === change.id) {
+            state.entity = { ...state.entity, ...change.fields, version: change.version };
+          }
+        } else if (change.op === 'DELETED') {
+          if (index >= 0) {
+            state.entities.splice(index, 1);
+          }
+          state.totalItems = Math.max(state.totalItems - 1, 0);
+        }
+      });
+    },
+  },
   extraReducers(builder) {
     builder
       .addCase(getEntity.fulfilled, (state, action) => {
@@ -119,7 +147,15 @@ export const PointSlice = createEntitySlice({
   },
 });
 
-export const { reset } = PointSlice.actions;
+export const { reset, pointChangesReceived } = PointSlice.actions;
+
+export const receivePointChanges: (changes: IPointChange[]) => AppThunk = changes => dispatch => {
+  if (changes.some(change => change.op === 'REFRESH')) {
+    dispatch(getEntities(lastQuery));
+  } else {
+    dispatch(pointChangesReceived(changes));
+  }
+};
 
 // Reducer
 export default PointSlice.reducer;
@@ -0,0 +1,8 @@
+export type PointChangeOperation = 'CREATED' | 'UPDATED' | 'DELETED' | 'REFRESH';
+
+export interface IPointChange {
+  id?: number;
+  op: PointChangeOperation;
+  version?: number;
+  fields?: { title?: string; description?: string | null };
+}
@@ -2,6 +2,7 @@ export interface IPoint {
   id?: number;
   title?: string;
   description?: string | null;
+  version?: number;
 }
 
 export const defaultValue: Readonly<IPoint> = {};
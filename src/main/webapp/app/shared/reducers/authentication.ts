@@ -7,6 +7,7 @@ import { AppThunk } from 'app/config/store';
 import { setLocale } from 'app/shared/reducers/locale';
 
 const AUTH_TOKEN_KEY = 'jhi-authenticationToken';
+const REFRESH_TOKEN_KEY = 'jhi-refreshToken';
 
 export const initialState = {
   loading: false,
@@ -61,25 +62,32 @@ export const login: (username: string, password: string, rememberMe?: boolean) =
     const bearerToken = response?.headers?.authorization;
     if (bearerToken && bearerToken.slice(0, 7) === 'Bearer ') {
       const jwt = bearerToken.slice(7, bearerToken.length);
-      if (rememberMe) {
-        Storage.local.set(AUTH_TOKEN_KEY, jwt);
-      } else {
-        Storage.session.set(AUTH_TOKEN_KEY, jwt);
+      const storage = rememberMe ? Storage.local : Storage.session;
+      storage.set(AUTH_TOKEN_KEY, jwt);
+      if (response.data?.refresh_token) {
+        storage.set(REFRESH_TOKEN_KEY, response.data.refresh_token);
       }
     }
     dispatch(getSession());
   };
 
 export const clearAuthToken = () => {
-  if (Storage.local.get(AUTH_TOKEN_KEY)) {
-    Storage.local.remove(AUTH_TOKEN_KEY);
-  }
-  if (Storage.session.get(AUTH_TOKEN_KEY)) {
-    Storage.session.remove(AUTH_TOKEN_KEY);
-  }
+  [AUTH_TOKEN_KEY, REFRESH_TOKEN_KEY].forEach(key => {
+    if (Storage.local.get(key)) {
+      Storage.local.remove(key);
+    }
+    if (Storage.session.get(key)) {
+      Storage.session.remove(key);
+    }
+  });
 };
 
 export const logout: () => AppThunk = () => dispatch => {
+  const token = Storage.local.get(AUTH_TOKEN_KEY) || Storage.session.get(AUTH_TOKEN_KEY);
+  if (token) {
+    // Revoke the session on the server; the tokens are forgotten locally whatever the outcome
+    axios.post('api/logout', null, { headers: { Authorization: `Bearer ${token}` } }).catch(() => undefined);
+  }
   clearAuthToken();
   dispatch(logoutSession());
 };
@@ -0,0 +1,135 @@
+package ai.planit.cancerlibrary.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import javax.cache.Caching;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the per-cache configuration of the {@link ai.planit.cancerlibrary.config.CacheConfiguration}.
+ */
+class CacheConfigurationTest {
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    private javax.cache.CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup(@TempDir Path diskDirectory) {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        jHipsterProperties.getCache().getEhcache().setTimeToLiveSeconds(3600);
+        applicationProperties = new ApplicationProperties();
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        cacheManager =
+            provider.getCacheManager(
+                URI.create("urn:cache-configuration-test"),
+                ConfigurationBuilder
+                    .newConfigurationBuilder()
+                    .withService(new DefaultPersistenceConfiguration(diskDirectory.toFile()))
+                    .build()
+            );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void testUnlistedCacheIsOnHeapOnly() {
+        CacheConfiguration<?, ?> configuration = ehcacheConfiguration("other");
+
+        assertThat(configuration.getResourcePools().getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+        assertThat(pool(configuration, ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(pool(configuration, ResourceType.Core.HEAP).getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation(null, null)).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void testListedCacheHasItsTiersAndExpiry() {
+        ApplicationProperties.Cache.Settings settings = new ApplicationProperties.Cache.Settings();
+        settings.setHeapEntries(10L);
+        settings.setOffHeapSizeMb(4);
+        settings.setDiskSizeMb(16);
+        settings.setTimeToIdleSeconds(60);
+        applicationProperties.getCache().getCaches().put("usersByLogin", settings);
+
+        CacheConfiguration<?, ?> configuration = ehcacheConfiguration("usersByLogin");
+
+        assertThat(pool(configuration, ResourceType.Core.HEAP).getSize()).isEqualTo(10);
+        assertThat(pool(configuration, ResourceType.Core.OFFHEAP).getSize()).isEqualTo(4);
+        assertThat(pool(configuration, ResourceType.Core.OFFHEAP).getUnit()).isEqualTo(MemoryUnit.MB);
+        assertThat(pool(configuration, ResourceType.Core.DISK).getSize()).isEqualTo(16);
+        assertThat(pool(configuration, ResourceType.Core.DISK).isPersistent()).isFalse();
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation(null, null)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(configuration.getExpiryPolicy().getExpiryForAccess(null, null)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testCacheCannotHaveBothTimeToLiveAndTimeToIdle() {
+        ApplicationProperties.Cache.Settings settings = new ApplicationProperties.Cache.Settings();
+        settings.setTimeToLiveSeconds(3600L);
+        settings.setTimeToIdleSeconds(60);
+        applicationProperties.getCache().getCaches().put("usersByLogin", settings);
+
+        assertThatThrownBy(() -> ehcacheConfiguration("usersByLogin")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testUnknownCacheIsRejected() {
+        applicationProperties.getCache().getCaches().put("usersByLgoin", new ApplicationProperties.Cache.Settings());
+
+        assertThatThrownBy(() -> cacheConfiguration().cacheManagerCustomizer().customize(cacheManager))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("usersByLgoin");
+    }
+
+    @Test
+    void testDiskTierRequiresDiskDirectory() {
+        ApplicationProperties.Cache.Settings settings = new ApplicationProperties.Cache.Settings();
+        settings.setDiskSizeMb(16);
+        applicationProperties.getCache().getCaches().put("usersByLogin", settings);
+
+        @SuppressWarnings("unchecked")
+        ObjectProvider<JCacheManagerCustomizer> customizers = mock(ObjectProvider.class);
+
+        assertThatThrownBy(() -> cacheConfiguration().jCacheCacheManager(customizers))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("application.cache.disk-directory");
+    }
+
+    private ai.planit.cancerlibrary.config.CacheConfiguration cacheConfiguration() {
+        return new ai.planit.cancerlibrary.config.CacheConfiguration(jHipsterProperties, applicationProperties);
+    }
+
+    private CacheConfiguration<?, ?> ehcacheConfiguration(String cacheName) {
+        javax.cache.Cache<Object, Object> cache = cacheManager.createCache(cacheName, cacheConfiguration().cacheConfiguration(cacheName));
+        return cache.unwrap(org.ehcache.Cache.class).getRuntimeConfiguration();
+    }
+
+    private static SizedResourcePool pool(CacheConfiguration<?, ?> configuration, ResourceType.Core type) {
+        return configuration.getResourcePools().getPoolForResource(type);
+    }
+}
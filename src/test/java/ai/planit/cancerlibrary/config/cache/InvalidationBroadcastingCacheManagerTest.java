@@ -0,0 +1,134 @@
+package ai.planit.cancerlibrary.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Test class for the {@link InvalidationBroadcastingCacheManager}, with two instances sharing a loopback channel.
+ */
+class InvalidationBroadcastingCacheManagerTest {
+
+    private static final String CACHE = "usersByLogin";
+
+    private List<CacheInvalidation> published;
+
+    private CacheManager instance1;
+
+    private CacheManager instance2;
+
+    @BeforeEach
+    public void setup() {
+        LoopbackCacheInvalidationChannel channel = new LoopbackCacheInvalidationChannel();
+        published = new ArrayList<>();
+        channel.subscribe(published::add);
+        instance1 = new InvalidationBroadcastingCacheManager(new ConcurrentMapCacheManager(CACHE), channel);
+        instance2 = new InvalidationBroadcastingCacheManager(new ConcurrentMapCacheManager(CACHE), channel);
+    }
+
+    @Test
+    void testEvictionReachesOtherInstances() {
+        cache(instance1).put("user", "old");
+        cache(instance2).put("user", "old");
+        cache(instance2).put("admin", "admin");
+
+        cache(instance1).evict("user");
+
+        assertThat(cache(instance1).get("user")).isNull();
+        assertThat(cache(instance2).get("user")).isNull();
+        assertThat(cache(instance2).get("admin", String.class)).isEqualTo("admin");
+        assertThat(published).singleElement().extracting(CacheInvalidation::getKeys).isEqualTo(Set.of("user"));
+    }
+
+    @Test
+    void testEvictionOfKeyNotCachedLocallyIsBroadcast() {
+        cache(instance2).put("user", "old");
+
+        assertThat(cache(instance1).evictIfPresent("user")).isFalse();
+
+        assertThat(cache(instance2).get("user")).isNull();
+    }
+
+    @Test
+    void testClearReachesOtherInstances() {
+        cache(instance2).put("user", "old");
+        cache(instance2).put("admin", "admin");
+
+        cache(instance1).clear();
+
+        assertThat(cache(instance2).get("user")).isNull();
+        assertThat(cache(instance2).get("admin")).isNull();
+        assertThat(published).singleElement().extracting(CacheInvalidation::getKeys).isNull();
+    }
+
+    @Test
+    void testBroadcastWaitsForTransactionCompletion() {
+        cache(instance2).put("user", "old");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache(instance1).evict("user");
+
+            assertThat(cache(instance2).get("user", String.class)).isEqualTo("old");
+            TransactionSynchronizationManager
+                .getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache(instance2).get("user")).isNull();
+    }
+
+    @Test
+    void testEvictionsOfTransactionAreBroadcastTogether() {
+        cache(instance2).put("user", "old");
+        cache(instance2).put("admin", "old");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache(instance1).evict("user");
+            cache(instance1).evict("admin");
+            cache(instance1).evict("user");
+
+            assertThat(published).isEmpty();
+            TransactionSynchronizationManager
+                .getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(published).singleElement().extracting(CacheInvalidation::getKeys).isEqualTo(Set.of("user", "admin"));
+        assertThat(cache(instance2).get("user")).isNull();
+        assertThat(cache(instance2).get("admin")).isNull();
+    }
+
+    @Test
+    void testKeyCachedAgainDuringTransactionIsEvictedOnCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache(instance1).evict("user");
+            cache(instance1).put("user", "old");
+
+            TransactionSynchronizationManager
+                .getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache(instance1).get("user")).isNull();
+    }
+
+    private static Cache cache(CacheManager cacheManager) {
+        return cacheManager.getCache(CACHE);
+    }
+}
@@ -0,0 +1,119 @@
+package ai.planit.cancerlibrary.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.planit.cancerlibrary.IntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link JdbcCacheInvalidationChannel}, with two instances sharing the test database.
+ */
+@IntegrationTest
+class JdbcCacheInvalidationChannelIT {
+
+    private static final String CACHE = "usersByLogin";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JdbcCacheInvalidationChannel instance1;
+
+    private JdbcCacheInvalidationChannel instance2;
+
+    private List<CacheInvalidation> received;
+
+    @BeforeEach
+    public void setup() {
+        instance1 = new JdbcCacheInvalidationChannel(jdbcTemplate, transactionManager, objectMapper);
+        instance2 = new JdbcCacheInvalidationChannel(jdbcTemplate, transactionManager, objectMapper);
+        received = new ArrayList<>();
+        instance2.subscribe(received::add);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.update("delete from cache_invalidation"));
+    }
+
+    @Test
+    void assertThatInvalidationIsDeliveredToOtherInstances() {
+        instance1.publish(new CacheInvalidation("instance1", CACHE, Set.of("user", "admin")));
+
+        instance2.poll();
+
+        assertThat(received).singleElement().satisfies(invalidation -> {
+            assertThat(invalidation.getSource()).isEqualTo("instance1");
+            assertThat(invalidation.getCacheName()).isEqualTo(CACHE);
+            assertThat(invalidation.getKeys()).isEqualTo(Set.of("user", "admin"));
+        });
+    }
+
+    @Test
+    void assertThatInvalidationIsDeliveredOnce() {
+        instance1.publish(new CacheInvalidation("instance1", CACHE, Set.of("user")));
+        instance2.poll();
+
+        instance2.poll();
+        instance1.publish(new CacheInvalidation("instance1", CACHE, Set.of("admin")));
+        instance2.poll();
+
+        assertThat(received).extracting(CacheInvalidation::getKeys).containsExactly(Set.of("user"), Set.of("admin"));
+    }
+
+    @Test
+    void assertThatInvalidationIsDeliveredWhateverItsDate() {
+        instance2.poll();
+
+        // Dated well before the previous poll, as by a clock running late: it follows the rows already read
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update(
+                "insert into cache_invalidation (source, cache_name, cache_keys, created_date) values (?, ?, ?, ?)",
+                "instance1",
+                CACHE,
+                "[\"user\"]",
+                Timestamp.from(Instant.now().minus(Duration.ofMinutes(10)))
+            )
+        );
+        instance2.poll();
+
+        assertThat(received).extracting(CacheInvalidation::getKeys).containsExactly(Set.of("user"));
+    }
+
+    @Test
+    void assertThatClearIsDelivered() {
+        instance1.publish(new CacheInvalidation("instance1", CACHE, null));
+        instance1.publish(new CacheInvalidation("instance1", CACHE, Set.of(42L)));
+
+        instance2.poll();
+
+        assertThat(received).hasSize(2).extracting(CacheInvalidation::getKeys).containsOnlyNulls();
+    }
+
+    @Test
+    void assertThatRecentInvalidationsAreKept() {
+        instance1.publish(new CacheInvalidation("instance1", CACHE, Set.of("user")));
+
+        instance1.removeExpiredInvalidations();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from cache_invalidation", Integer.class)).isEqualTo(1);
+    }
+}
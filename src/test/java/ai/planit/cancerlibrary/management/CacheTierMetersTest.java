@@ -0,0 +1,98 @@
+package ai.planit.cancerlibrary.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import javax.cache.Caching;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link CacheTierMeters}.
+ */
+class CacheTierMetersTest {
+
+    private MeterRegistry meterRegistry;
+
+    private EhcacheStatistics statistics;
+
+    private javax.cache.CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = new EhcacheStatistics();
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        cacheManager =
+            provider.getCacheManager(
+                URI.create("urn:cache-tier-meters-test"),
+                ConfigurationBuilder.newConfigurationBuilder().withService(statistics).build()
+            );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void testHeapCache() {
+        javax.cache.Cache<Object, Object> cache = createCache("heap", ResourcePoolsBuilder.heap(10));
+        new CacheTierMeters(cache, statistics, Tags.of("cacheManager", "test")).bindTo(meterRegistry);
+
+        for (int i = 0; i < 25; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+
+        assertThat(meterRegistry.get(CacheTierMeters.SIZE_METER_NAME).tag("cache", "heap").gauge().value()).isEqualTo(10);
+        assertThat(tierEntries("heap", "OnHeap")).isEqualTo(10);
+        assertThat(tierEvictions("heap", "OnHeap")).isEqualTo(15);
+        assertThat(meterRegistry.find(CacheTierMeters.TIER_BYTES_METER_NAME).gauge()).isNull();
+    }
+
+    @Test
+    void testOffHeapCache() {
+        javax.cache.Cache<Object, Object> cache = createCache("offheap", ResourcePoolsBuilder.heap(10).offheap(1, MemoryUnit.MB));
+        new CacheTierMeters(cache, statistics, Tags.empty()).bindTo(meterRegistry);
+
+        for (int i = 0; i < 25; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+
+        assertThat(meterRegistry.get(CacheTierMeters.SIZE_METER_NAME).tag("cache", "offheap").gauge().value()).isEqualTo(25);
+        assertThat(tierEntries("offheap", "OffHeap")).isEqualTo(25);
+        assertThat(tierEvictions("offheap", "OffHeap")).isZero();
+        assertThat(tierEntries("offheap", "OnHeap")).isLessThanOrEqualTo(10);
+        assertThat(
+            meterRegistry.get(CacheTierMeters.TIER_BYTES_METER_NAME).tag("cache", "offheap").tag("tier", "OffHeap").gauge().value()
+        )
+            .isPositive();
+    }
+
+    private javax.cache.Cache<Object, Object> createCache(String name, ResourcePoolsBuilder resourcePools) {
+        return cacheManager.createCache(
+            name,
+            Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            )
+        );
+    }
+
+    private double tierEntries(String cache, String tier) {
+        return meterRegistry.get(CacheTierMeters.TIER_ENTRIES_METER_NAME).tag("cache", cache).tag("tier", tier).gauge().value();
+    }
+
+    private double tierEvictions(String cache, String tier) {
+        return meterRegistry.get(CacheTierMeters.TIER_EVICTIONS_METER_NAME).tag("cache", cache).tag("tier", tier).functionCounter().count();
+    }
+}
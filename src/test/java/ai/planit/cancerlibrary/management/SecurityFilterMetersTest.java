@@ -0,0 +1,197 @@
+package ai.planit.cancerlibrary.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.Servlet;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.DefaultSecurityFilterChain;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Test class for the {@link SecurityFilterMeters}.
+ */
+class SecurityFilterMetersTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getFilterMetrics().setEnabled(true);
+    }
+
+    @Test
+    void testChainIsUnchangedWhenDisabled() {
+        applicationProperties.getSecurity().getFilterMetrics().setEnabled(false);
+        DefaultSecurityFilterChain chain = new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE, new PassThroughFilter());
+
+        assertThat(new SecurityFilterMeters(meterRegistry, applicationProperties).instrument(chain)).isSameAs(chain);
+    }
+
+    @Test
+    void testFiltersAreTimedWithoutTheNextOnes() throws Exception {
+        DefaultSecurityFilterChain chain = new SecurityFilterMeters(meterRegistry, applicationProperties)
+            .instrument(new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE, new PassThroughFilter(), new SlowFilter()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/points/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/points/{id}");
+
+        new MockFilterChain(servlet(), chain.getFilters().toArray(new Filter[0])).doFilter(request, new MockHttpServletResponse());
+
+        Timer passThrough = timer("PassThroughFilter", "/api/points/{id}", "SUCCESS");
+        Timer slow = timer("SlowFilter", "/api/points/{id}", "SUCCESS");
+        assertThat(passThrough.count()).isEqualTo(1);
+        assertThat(slow.count()).isEqualTo(1);
+        assertThat(slow.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+        assertThat(passThrough.totalTime(TimeUnit.MILLISECONDS)).isLessThan(50);
+    }
+
+    @Test
+    void testRefusedAndFailedRequests() throws Exception {
+        DefaultSecurityFilterChain chain = new SecurityFilterMeters(meterRegistry, applicationProperties)
+            .instrument(new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE, new PassThroughFilter()));
+        Filter[] filters = chain.getFilters().toArray(new Filter[0]);
+
+        MockFilterChain refusing = new MockFilterChain(
+            new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest request, HttpServletResponse response) {
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                }
+            },
+            filters
+        );
+        refusing.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse());
+        MockFilterChain failing = new MockFilterChain(
+            new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest request, HttpServletResponse response) {
+                    throw new IllegalStateException();
+                }
+            },
+            filters
+        );
+        assertThatThrownBy(() -> failing.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse()))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(timer("PassThroughFilter", "UNKNOWN", "CLIENT_ERROR").count()).isEqualTo(1);
+        assertThat(timer("PassThroughFilter", "UNKNOWN", "SERVER_ERROR").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testAsyncRequestsAreRecordedOnCompletion() throws Exception {
+        DefaultSecurityFilterChain chain = new SecurityFilterMeters(meterRegistry, applicationProperties)
+            .instrument(new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE, new PassThroughFilter()));
+        Filter[] filters = chain.getFilters().toArray(new Filter[0]);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/authenticate");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new MockFilterChain(
+            new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest request, HttpServletResponse response) {
+                    request.startAsync();
+                }
+            },
+            filters
+        )
+            .doFilter(request, response);
+        assertThat(meterRegistry.find(SecurityFilterMeters.FILTER_TIMER_NAME).timer()).isNull();
+
+        // The result is written on the async dispatch, which is not timed again
+        AsyncContext asyncContext = request.getAsyncContext();
+        request.setDispatcherType(DispatcherType.ASYNC);
+        new MockFilterChain(
+            new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest request, HttpServletResponse response) {
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                }
+            },
+            filters
+        )
+            .doFilter(request, response);
+        assertThat(meterRegistry.find(SecurityFilterMeters.FILTER_TIMER_NAME).timer()).isNull();
+        asyncContext.complete();
+
+        assertThat(timer("PassThroughFilter", "UNKNOWN", "CLIENT_ERROR").count()).isEqualTo(1);
+        assertThat(meterRegistry.find(SecurityFilterMeters.FILTER_TIMER_NAME).tag("outcome", "SUCCESS").timer()).isNull();
+    }
+
+    @Test
+    void testFiltersAreStillFoundByType() {
+        DefaultSecurityFilterChain chain = new SecurityFilterMeters(meterRegistry, applicationProperties)
+            .instrument(new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE, new PassThroughFilter(), new SlowFilter()));
+
+        assertThat(chain.getFilters()).hasSize(5).hasAtLeastOneElementOfType(PassThroughFilter.class);
+        assertThat(chain.getFilters()).hasAtLeastOneElementOfType(SlowFilter.class);
+    }
+
+    private Timer timer(String filter, String route, String outcome) {
+        return meterRegistry
+            .get(SecurityFilterMeters.FILTER_TIMER_NAME)
+            .tag(SecurityFilterMeters.FILTER_TIMER_FILTER_DIMENSION, filter)
+            .tag(SecurityFilterMeters.FILTER_TIMER_ROUTE_DIMENSION, route)
+            .tag(SecurityFilterMeters.FILTER_TIMER_OUTCOME_DIMENSION, outcome)
+            .timer();
+    }
+
+    private static Servlet servlet() {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private static class PassThroughFilter implements Filter {
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static class SlowFilter implements Filter {
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -4,14 +4,22 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import ai.planit.cancerlibrary.IntegrationTest;
+import ai.planit.cancerlibrary.config.cache.CacheInvalidation;
+import ai.planit.cancerlibrary.config.cache.CacheInvalidationChannel;
+import ai.planit.cancerlibrary.config.cache.InvalidationBroadcastingCacheManager;
 import ai.planit.cancerlibrary.domain.User;
 import ai.planit.cancerlibrary.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Locale;
+import java.util.Set;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +45,15 @@ class DomainUserDetailsServiceIT {
     @Qualifier("userDetailsService")
     private UserDetailsService domainUserDetailsService;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheInvalidationChannel cacheInvalidationChannel;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     public void init() {
         User userOne = new User();
@@ -98,6 +115,20 @@ class DomainUserDetailsServiceIT {
         assertThat(userDetails.getUsername()).isEqualTo(USER_TWO_LOGIN);
     }
 
+    @Test
+    void assertThatAuthoritiesAreShared() {
+        UserDetails admin = domainUserDetailsService.loadUserByUsername("admin");
+        UserDetails user = domainUserDetailsService.loadUserByUsername("user");
+
+        GrantedAuthority adminUserAuthority = admin
+            .getAuthorities()
+            .stream()
+            .filter(authority -> AuthoritiesConstants.USER.equals(authority.getAuthority()))
+            .findFirst()
+            .orElseThrow();
+        assertThat(user.getAuthorities()).singleElement().isSameAs(adminUserAuthority);
+    }
+
     @Test
     void assertThatEmailIsPrioritizedOverLogin() {
         UserDetails userDetails = domainUserDetailsService.loadUserByUsername(USER_ONE_EMAIL);
@@ -110,4 +141,19 @@ class DomainUserDetailsServiceIT {
         assertThatExceptionOfType(UserNotActivatedException.class)
             .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_THREE_LOGIN));
     }
+
+    @Test
+    void assertThatCachedUserIsEvictedByOtherInstances() {
+        domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        Cache usersByLogin = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        assertThat(usersByLogin.get(USER_ONE_LOGIN, User.class)).isNotNull().extracting(User::getLogin).isEqualTo(USER_ONE_LOGIN);
+
+        cacheInvalidationChannel.publish(
+            new CacheInvalidation("other-instance", UserRepository.USERS_BY_LOGIN_CACHE, Set.of(USER_ONE_LOGIN))
+        );
+
+        assertThat(cacheManager).isInstanceOf(InvalidationBroadcastingCacheManager.class);
+        assertThat(usersByLogin.get(USER_ONE_LOGIN)).isNull();
+        assertThat(meterRegistry.find("cache.gets").tag("cache", UserRepository.USERS_BY_LOGIN_CACHE).meters()).isNotEmpty();
+    }
 }
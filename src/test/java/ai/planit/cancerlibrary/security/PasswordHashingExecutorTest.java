@@ -0,0 +1,73 @@
+package ai.planit.cancerlibrary.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Test class for the {@link PasswordHashingExecutor}.
+ */
+class PasswordHashingExecutorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getPasswordHashing().setThreads(1);
+        applicationProperties.getSecurity().getPasswordHashing().setQueueCapacity(1);
+        passwordHashingExecutor = new PasswordHashingExecutor(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        passwordHashingExecutor.destroy();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testSecurityContextIsPropagated() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("hashing-user", null));
+
+        CompletableFuture<String> login = passwordHashingExecutor.supplyAsync(() -> SecurityUtils.getCurrentUserLogin().orElse(null));
+
+        assertThat(login.join()).isEqualTo("hashing-user");
+    }
+
+    @Test
+    void testFullQueueIsRefused() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = passwordHashingExecutor.supplyAsync(() -> await(release));
+        CompletableFuture<Boolean> queued = passwordHashingExecutor.supplyAsync(() -> await(release));
+
+        assertThatThrownBy(() -> passwordHashingExecutor.supplyAsync(() -> await(release)))
+            .isInstanceOf(PasswordHashingUnavailableException.class);
+        assertThat(meterRegistry.get("executor.queued").tag("name", PasswordHashingExecutor.METRICS_NAME).gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.join()).isTrue();
+        assertThat(queued.join()).isTrue();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
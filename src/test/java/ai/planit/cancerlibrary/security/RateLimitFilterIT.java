@@ -0,0 +1,102 @@
+package ai.planit.cancerlibrary.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import ai.planit.cancerlibrary.IntegrationTest;
+import ai.planit.cancerlibrary.security.jwt.JWTFilter;
+import java.util.List;
+import javax.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Integration tests for the {@link RateLimitFilter}, through the security filter chain of the application.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@TestPropertySource(
+    properties = {
+        "application.security.rate-limit.enabled=true",
+        "application.security.rate-limit.endpoints[0].path=/api/authenticate",
+        "application.security.rate-limit.endpoints[0].login-field=username",
+        "application.security.rate-limit.endpoints[0].ip.capacity=2",
+        "application.security.rate-limit.endpoints[0].ip.period-seconds=3600",
+    }
+)
+class RateLimitFilterIT {
+
+    @Autowired
+    private FilterChainProxy springSecurityFilterChain;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void assertThatRateLimitFilterRunsBeforeJwtFilter() {
+        List<Filter> filters = springSecurityFilterChain.getFilters("/api/authenticate");
+
+        int rateLimitFilter = indexOf(filters, RateLimitFilter.class);
+        assertThat(rateLimitFilter).isNotNegative().isLessThan(indexOf(filters, JWTFilter.class));
+    }
+
+    @Test
+    void assertThatRequestsBeyondTheBudgetAreRefused() throws Exception {
+        mockMvc.perform(authenticate().with(request -> remoteAddr(request, "10.1.0.1"))).andExpect(status().isOk());
+        mockMvc.perform(authenticate().with(request -> remoteAddr(request, "10.1.0.1"))).andExpect(status().isOk());
+
+        // Refused before the JWT filter reads the token, valid or not
+        mockMvc
+            .perform(authenticate().header(HttpHeaders.AUTHORIZATION, "Bearer invalid").with(request -> remoteAddr(request, "10.1.0.1")))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+        mockMvc.perform(authenticate().with(request -> remoteAddr(request, "10.1.0.2"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void assertThatOversizeBodyIsRefused() throws Exception {
+        mockMvc
+            .perform(
+                post("/api/authenticate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        "{\"padding\":\"" +
+                        "x".repeat(10000) +
+                        "\",\"username\":\"rate-limit-filter-it\",\"password\":\"password\"}"
+                    )
+                    .with(request -> remoteAddr(request, "10.1.0.3"))
+            )
+            .andExpect(status().isPayloadTooLarge())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+    }
+
+    private static MockHttpServletRequestBuilder authenticate() {
+        return post("/api/authenticate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"username\":\"rate-limit-filter-it\",\"password\":\"password\"}");
+    }
+
+    private static MockHttpServletRequest remoteAddr(MockHttpServletRequest request, String remoteAddr) {
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static int indexOf(List<Filter> filters, Class<? extends Filter> type) {
+        for (int i = 0; i < filters.size(); i++) {
+            if (type.isInstance(filters.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
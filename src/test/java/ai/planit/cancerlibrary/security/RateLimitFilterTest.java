@@ -0,0 +1,292 @@
+package ai.planit.cancerlibrary.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.management.SecurityMetersService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Test class for the {@link RateLimitFilter}.
+ */
+class RateLimitFilterTest {
+
+    private static final String AUTHENTICATE = "/api/authenticate";
+
+    private static final String RESET_PASSWORD = "/api/account/reset-password/init";
+
+    private MeterRegistry meterRegistry;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.Security.RateLimit properties = new ApplicationProperties.Security.RateLimit();
+        ApplicationProperties.Security.RateLimit.Endpoint authenticate = new ApplicationProperties.Security.RateLimit.Endpoint();
+        authenticate.setPath(AUTHENTICATE);
+        authenticate.setLoginField("username");
+        authenticate.getIp().setCapacity(3);
+        authenticate.getIp().setPeriodSeconds(60);
+        authenticate.getLogin().setCapacity(2);
+        authenticate.getLogin().setPeriodSeconds(600);
+        ApplicationProperties.Security.RateLimit.Endpoint resetPassword = new ApplicationProperties.Security.RateLimit.Endpoint();
+        resetPassword.setPath(RESET_PASSWORD);
+        resetPassword.getLogin().setCapacity(1);
+        properties.setEndpoints(List.of(authenticate, resetPassword));
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(properties, new SecurityMetersService(meterRegistry), new ObjectMapper());
+    }
+
+    @Test
+    void testIpBudgetExhausted() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(authenticate("127.0.0.1", "user" + i).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        }
+
+        MockHttpServletResponse response = authenticate("127.0.0.1", "other");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 20L);
+        assertThat(response.getContentType()).isEqualTo("application/problem+json");
+        assertThat(authenticate("127.0.0.2", "other").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(rejected(AUTHENTICATE, "ip")).isEqualTo(1);
+    }
+
+    @Test
+    void testLoginBudgetExhaustedAcrossIps() throws Exception {
+        assertThat(authenticate("10.0.0.1", "victim").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(authenticate("10.0.0.2", "Victim").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+
+        MockHttpServletResponse response = authenticate("10.0.0.3", "VICTIM");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 300L);
+        assertThat(authenticate("10.0.0.3", "someone-else").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(rejected(AUTHENTICATE, "login")).isEqualTo(1);
+    }
+
+    @Test
+    void testWholeBodyIsTheLogin() throws Exception {
+        assertThat(post(RESET_PASSWORD, "10.0.0.1", "user@example.com").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(post(RESET_PASSWORD, "10.0.0.2", "User@Example.com").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(post(RESET_PASSWORD, "10.0.0.2", "other@example.com").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void testUnsupportedCharsetIsReadAsUtf8() throws Exception {
+        MockHttpServletRequest request = request(RESET_PASSWORD, "10.0.0.1", "user@example.com");
+        request.setCharacterEncoding("bogus");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+
+        request = request(RESET_PASSWORD, "10.0.0.2", "user@example.com");
+        request.setCharacterEncoding("not a charset!");
+        response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    void testBodyIsReplayed() throws Exception {
+        String body = "{\"username\":\"user\",\"password\":\"" + "x".repeat(8000) + "\"}";
+        MockHttpServletRequest request = request(AUTHENTICATE, "127.0.0.1", body);
+        MockFilterChain filterChain = new MockFilterChain();
+
+        rateLimitFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(StreamUtils.copyToString(filterChain.getRequest().getInputStream(), StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    void testOversizeBodyIsRefused() throws Exception {
+        // Padded so that the login could not be read, the body would escape the budget of the login
+        String body = "{\"padding\":\"" + "x".repeat(10000) + "\",\"username\":\"victim\",\"password\":\"password\"}";
+        MockFilterChain filterChain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rateLimitFilter.doFilter(request(AUTHENTICATE, "10.0.0.1", body), response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        assertThat(response.getContentType()).isEqualTo("application/problem+json");
+        assertThat(filterChain.getRequest()).isNull();
+    }
+
+    @Test
+    void testBodyWithoutLoginIsRefused() throws Exception {
+        assertThat(post(AUTHENTICATE, "10.0.0.1", "not json").getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(post(AUTHENTICATE, "10.0.0.1", "{\"password\":\"password\"}").getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(post(RESET_PASSWORD, "10.0.0.1", " ").getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void testReplayedBodyIsAnnouncedToReadListener() throws Exception {
+        String body = "{\"username\":\"user\",\"password\":\"password\"}";
+        ByteArrayInputStream content = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", AUTHENTICATE) {
+            @Override
+            public ServletInputStream getInputStream() {
+                return new FinishedInputStream(content);
+            }
+        };
+        request.setServletPath(AUTHENTICATE);
+        MockFilterChain filterChain = new MockFilterChain();
+        rateLimitFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        ServletInputStream inputStream = filterChain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        inputStream.setReadListener(
+            new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    events.add("data");
+                    while (inputStream.isReady() && !inputStream.isFinished()) {
+                        int b = inputStream.read();
+                        if (b != -1) {
+                            read.write(b);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    events.add("end");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    events.add("error");
+                }
+            }
+        );
+
+        assertThat(events).containsExactly("data", "end");
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    void testOtherRequestsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(post("/api/account", "127.0.0.1", "{}").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+            MockHttpServletRequest get = request(AUTHENTICATE, "127.0.0.1", "");
+            get.setMethod("GET");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            rateLimitFilter.doFilter(get, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        }
+        assertThat(meterRegistry.find(SecurityMetersService.RATE_LIMITED_METER_NAME).counter()).isNull();
+    }
+
+    @Test
+    void testIdleBucketsAreEvicted() {
+        TokenBuckets buckets = new TokenBuckets(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buckets.tryConsume("login", "key" + i, 1, 1000, 0)).isZero();
+        }
+        assertThat(buckets.tryConsume("login", "key0", 1, 1000, 500)).isEqualTo(500);
+
+        assertThat(buckets.tryConsume("login", "key4", 1, 1000, 2000)).isZero();
+
+        assertThat(buckets.size()).isEqualTo(1);
+        assertThat(buckets.tryConsume("login", "key0", 1, 1000, 2000)).isZero();
+    }
+
+    @Test
+    void testThrottledBucketsAreNotEvictedByNewKeys() {
+        TokenBuckets buckets = new TokenBuckets(2);
+        assertThat(buckets.tryConsume("login", "victim", 1, 1000, 0)).isZero();
+        assertThat(buckets.tryConsume("login", "other", 1, 1000, 0)).isZero();
+        assertThat(buckets.tryConsume("login", "victim", 1, 1000, 10)).isPositive();
+
+        // The map is full of buckets being throttled: the new keys share one bucket
+        assertThat(buckets.tryConsume("login", "random1", 1, 1000, 10)).isZero();
+        assertThat(buckets.tryConsume("login", "random2", 1, 1000, 10)).isPositive();
+        assertThat(buckets.tryConsume("ip", "10.0.0.1", 1, 1000, 10)).isZero();
+
+        assertThat(buckets.size()).isEqualTo(2);
+        assertThat(buckets.tryConsume("login", "victim", 1, 1000, 10)).isPositive();
+    }
+
+    private MockHttpServletResponse authenticate(String ip, String username) throws Exception {
+        return post(AUTHENTICATE, ip, "{\"username\":\"" + username + "\",\"password\":\"password\"}");
+    }
+
+    private MockHttpServletResponse post(String path, String ip, String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request(path, ip, body), response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest request(String path, String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        request.setRemoteAddr(ip);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    /**
+     * The stream of an asynchronous request whose body is entirely received, as Undertow announces it.
+     */
+    private static final class FinishedInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream content;
+
+        FinishedInputStream(ByteArrayInputStream content) {
+            this.content = content;
+        }
+
+        @Override
+        public int read() {
+            return content.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return content.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+
+    private double rejected(String endpoint, String key) {
+        return meterRegistry
+            .get(SecurityMetersService.RATE_LIMITED_METER_NAME)
+            .tag(SecurityMetersService.RATE_LIMITED_METER_ENDPOINT_DIMENSION, endpoint)
+            .tag(SecurityMetersService.RATE_LIMITED_METER_KEY_DIMENSION, key)
+            .counter()
+            .count();
+    }
+}
@@ -1,15 +1,22 @@
 package ai.planit.cancerlibrary.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
+import ai.planit.cancerlibrary.config.ApplicationProperties;
 import ai.planit.cancerlibrary.management.SecurityMetersService;
+import ai.planit.cancerlibrary.repository.AuthorityRepository;
+import ai.planit.cancerlibrary.repository.JwtSigningKeyRepository;
+import ai.planit.cancerlibrary.repository.RevokedSessionRepository;
 import ai.planit.cancerlibrary.security.AuthoritiesConstants;
+import ai.planit.cancerlibrary.security.AuthorityRegistry;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collections;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -24,6 +31,8 @@ class JWTFilterTest {
 
     private TokenProvider tokenProvider;
 
+    private TokenRevocationService tokenRevocationService;
+
     private JWTFilter jwtFilter;
 
     @BeforeEach
@@ -34,11 +43,23 @@ class JWTFilterTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        AuthorityRegistry authorityRegistry = new AuthorityRegistry(mock(AuthorityRepository.class));
+
+        JwtKeyRing jwtKeyRing = new JwtKeyRing(mock(JwtSigningKeyRepository.class), jHipsterProperties, new ApplicationProperties());
+        tokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                new ApplicationProperties(),
+                securityMetersService,
+                authorityRegistry,
+                jwtKeyRing,
+                new ServerProperties()
+            );
         ReflectionTestUtils.setField(tokenProvider, "key", Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
-        jwtFilter = new JWTFilter(tokenProvider);
+        tokenRevocationService = new TokenRevocationService(mock(RevokedSessionRepository.class), jHipsterProperties);
+        jwtFilter = new JWTFilter(tokenProvider, tokenRevocationService);
         SecurityContextHolder.getContext().setAuthentication(null);
     }
 
@@ -61,6 +82,49 @@ class JWTFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication().getCredentials()).hasToString(jwt);
     }
 
+    @Test
+    void testJWTFilterRevokedSession() throws Exception {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false, "revoked-session");
+        String otherJwt = tokenProvider.createToken(authentication, false, "other-session");
+        tokenRevocationService.revoke("revoked-session");
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        request.setRequestURI("/api/test");
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+
+        request = new MockHttpServletRequest();
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + otherJwt);
+        request.setRequestURI("/api/test");
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication())
+            .isInstanceOfSatisfying(JwtAuthenticationToken.class, token -> assertThat(token.getSessionId()).isEqualTo("other-session"));
+    }
+
+    @Test
+    void testRevokedSessionsAreForgottenOnceExpired() {
+        RevokedSessions revokedSessions = new RevokedSessions();
+        for (int i = 0; i < 5000; i++) {
+            revokedSessions.add("session-" + i, i < 4000 ? 1000 : 2000);
+        }
+
+        assertThat(revokedSessions.contains("session-0", 999)).isTrue();
+        assertThat(revokedSessions.contains("session-4999", 999)).isTrue();
+        assertThat(revokedSessions.contains("session-5000", 999)).isFalse();
+        assertThat(revokedSessions.contains("session-0", 1000)).isFalse();
+
+        revokedSessions.purge(1000);
+        assertThat(revokedSessions.size()).isEqualTo(1000);
+        assertThat(revokedSessions.contains("session-0", 999)).isFalse();
+        assertThat(revokedSessions.contains("session-4000", 1999)).isTrue();
+    }
+
     @Test
     void testJWTFilterInvalidToken() throws Exception {
         String jwt = "wrong_jwt";
@@ -114,4 +178,41 @@ class JWTFilterTest {
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
+
+    @Test
+    void testJWTFilterQueryStringToken() throws Exception {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setQueryString("t=1&" + JWTFilter.AUTHORIZATION_TOKEN + "=" + jwt);
+        request.setRequestURI("/websocket/tracker/info");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        jwtFilter.doFilter(request, response, filterChain);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("test-user");
+    }
+
+    @Test
+    void testJWTFilterIgnoresFormToken() throws Exception {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/test");
+        request.setContentType("application/x-www-form-urlencoded");
+        request.addParameter(JWTFilter.AUTHORIZATION_TOKEN, jwt);
+        request.setQueryString(JWTFilter.AUTHORIZATION_TOKEN + "_other=" + jwt + "&" + JWTFilter.AUTHORIZATION_TOKEN + "=%zz");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        jwtFilter.doFilter(request, response, filterChain);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
 }
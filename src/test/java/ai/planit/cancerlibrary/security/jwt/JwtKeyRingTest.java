@@ -0,0 +1,54 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.JwtSigningKey;
+import ai.planit.cancerlibrary.repository.JwtSigningKeyRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import tech.jhipster.config.JHipsterProperties;
+
+class JwtKeyRingTest {
+
+    private JHipsterProperties jHipsterProperties;
+
+    @BeforeEach
+    public void setup() {
+        jHipsterProperties = new JHipsterProperties();
+        String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
+    }
+
+    @Test
+    void testInstancesStartingTogetherSignWithTheSameKey() {
+        JwtSigningKeyRepository winnerRepository = mock(JwtSigningKeyRepository.class);
+        JwtKeyRing winner = new JwtKeyRing(winnerRepository, jHipsterProperties, new ApplicationProperties());
+        String kid = winner.getSigningKey().getKid();
+        ArgumentCaptor<JwtSigningKey> created = ArgumentCaptor.forClass(JwtSigningKey.class);
+        verify(winnerRepository).saveAndFlush(created.capture());
+
+        // Read the empty table too, then lost the race to insert the first key
+        JwtSigningKeyRepository loserRepository = mock(JwtSigningKeyRepository.class);
+        when(loserRepository.findAllByOrderByCreatedDateDesc()).thenReturn(List.of(), List.of(created.getValue()));
+        when(loserRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate kid"));
+        JwtKeyRing loser = new JwtKeyRing(loserRepository, jHipsterProperties, new ApplicationProperties());
+
+        assertThat(loser.getSigningKey().getKid()).isEqualTo(kid);
+        assertThat(loser.getVerificationKey(kid)).isEqualTo(winner.getVerificationKey(kid));
+    }
+
+    @Test
+    void testRotatedKeysHaveRandomKids() {
+        JwtKeyRing jwtKeyRing = new JwtKeyRing(mock(JwtSigningKeyRepository.class), jHipsterProperties, new ApplicationProperties());
+
+        assertThat(jwtKeyRing.createKey().getKid()).isNotEqualTo(jwtKeyRing.createKey().getKid());
+    }
+}
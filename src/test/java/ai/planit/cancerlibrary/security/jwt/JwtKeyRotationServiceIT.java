@@ -0,0 +1,113 @@
+package ai.planit.cancerlibrary.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.planit.cancerlibrary.IntegrationTest;
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.JwtSigningKey;
+import ai.planit.cancerlibrary.repository.JwtSigningKeyRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link JwtKeyRotationService} and {@link JwksEndpoint}.
+ */
+@Transactional
+@IntegrationTest
+class JwtKeyRotationServiceIT {
+
+    @Autowired
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @Autowired
+    private JwtKeyRotationService jwtKeyRotationService;
+
+    @Autowired
+    private JwksEndpoint jwksEndpoint;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void init() {
+        jwtSigningKeyRepository.deleteAll();
+        jwtKeyRing.refresh();
+    }
+
+    @Test
+    void assertThatKeysAreRotated() {
+        JwtSigningKey first = jwtSigningKeyRepository.findFirstByOrderByCreatedDateDesc().orElseThrow();
+        assertThat(jwtKeyRing.getSigningKey().getKid()).isEqualTo(first.getKid());
+
+        jwtKeyRotationService.rotateKeys();
+        assertThat(jwtKeyRing.getSigningKey().getKid()).isEqualTo(first.getKid());
+
+        long rotationPeriod = applicationProperties.getSecurity().getJwt().getRotationPeriodSeconds();
+        first.setCreatedDate(Instant.now().minusSeconds(rotationPeriod + 1));
+        jwtSigningKeyRepository.saveAndFlush(first);
+        jwtKeyRotationService.rotateKeys();
+
+        // The new key is published, but signs only once the other instances have had the time to load it
+        JwtSigningKey second = jwtSigningKeyRepository.findFirstByOrderByCreatedDateDesc().orElseThrow();
+        assertThat(second.getKid()).isNotEqualTo(first.getKid());
+        assertThat(jwtKeyRing.getVerificationKey(second.getKid())).isNotNull();
+        assertThat(jwtKeyRing.getSigningKey().getKid()).isEqualTo(first.getKid());
+
+        second.setCreatedDate(Instant.now().minusMillis(applicationProperties.getSecurity().getJwt().getKeyRefreshIntervalMs() + 1));
+        jwtSigningKeyRepository.saveAndFlush(second);
+        jwtKeyRotationService.rotateKeys();
+
+        assertThat(jwtKeyRing.getSigningKey().getKid()).isEqualTo(second.getKid());
+        assertThat(jwtKeyRing.getVerificationKey(first.getKid())).isNotNull();
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user", "user", List.of()), false);
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+
+        first.setCreatedDate(Instant.now().minus(365, ChronoUnit.DAYS));
+        jwtSigningKeyRepository.saveAndFlush(first);
+        jwtKeyRotationService.rotateKeys();
+
+        assertThat(jwtKeyRing.getVerificationKey(first.getKid())).isNull();
+        assertThat(jwtSigningKeyRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void assertThatPrivateKeysAreEncrypted() {
+        JwtSigningKey key = jwtSigningKeyRepository.findFirstByOrderByCreatedDateDesc().orElseThrow();
+        byte[] encoded = jwtKeyRing.getSigningKey().getPrivateKey().getEncoded();
+
+        assertThat(key.getPrivateKey()).isNotEqualTo(Base64.getEncoder().encodeToString(encoded));
+        // Prefixed with the IV and followed by the tag of AES-GCM
+        assertThat(Base64.getDecoder().decode(key.getPrivateKey())).hasSize(12 + encoded.length + 16);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void assertThatJwkSetPublishesTheKeys() {
+        Map<String, Object> jwks = jwksEndpoint.jwks();
+
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) jwks.get("keys");
+        assertThat(keys).hasSize(1);
+        assertThat(keys.get(0))
+            .containsEntry("kty", "EC")
+            .containsEntry("crv", "P-256")
+            .containsEntry("alg", "ES256")
+            .containsEntry("kid", jwtKeyRing.getSigningKey().getKid())
+            .containsKeys("x", "y")
+            .doesNotContainKey("d");
+        assertThat(Base64.getUrlDecoder().decode((String) keys.get(0).get("x"))).hasSize(32);
+    }
+}
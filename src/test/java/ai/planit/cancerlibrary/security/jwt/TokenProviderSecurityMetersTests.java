@@ -1,9 +1,14 @@
 package ai.planit.cancerlibrary.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
+import ai.planit.cancerlibrary.config.ApplicationProperties;
 import ai.planit.cancerlibrary.management.SecurityMetersService;
+import ai.planit.cancerlibrary.repository.AuthorityRepository;
+import ai.planit.cancerlibrary.repository.JwtSigningKeyRepository;
 import ai.planit.cancerlibrary.security.AuthoritiesConstants;
+import ai.planit.cancerlibrary.security.AuthorityRegistry;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -17,6 +22,7 @@ import java.util.Collection;
 import java.util.Date;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -43,7 +49,18 @@ class TokenProviderSecurityMetersTests {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        AuthorityRegistry authorityRegistry = new AuthorityRegistry(mock(AuthorityRepository.class));
+
+        JwtKeyRing jwtKeyRing = new JwtKeyRing(mock(JwtSigningKeyRepository.class), jHipsterProperties, new ApplicationProperties());
+        tokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                new ApplicationProperties(),
+                securityMetersService,
+                authorityRegistry,
+                jwtKeyRing,
+                new ServerProperties()
+            );
         Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -107,6 +124,17 @@ class TokenProviderSecurityMetersTests {
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
 
+    @Test
+    void testGarbageTokenMalformedCount() {
+        Collection<Counter> counters = meterRegistry.find(INVALID_TOKENS_METER_EXPECTED_NAME).counters();
+
+        tokenProvider.validateToken("not a token");
+        tokenProvider.validateToken(createValidToken() + ".");
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(2);
+        assertThat(aggregate(counters)).isEqualTo(2);
+    }
+
     private String createValidToken() {
         Authentication authentication = createAuthentication();
 
@@ -1,31 +1,45 @@
 package ai.planit.cancerlibrary.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
+import ai.planit.cancerlibrary.config.ApplicationProperties;
 import ai.planit.cancerlibrary.management.SecurityMetersService;
+import ai.planit.cancerlibrary.repository.AuthorityRepository;
+import ai.planit.cancerlibrary.repository.JwtSigningKeyRepository;
 import ai.planit.cancerlibrary.security.AuthoritiesConstants;
+import ai.planit.cancerlibrary.security.AuthorityRegistry;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.undertow.UndertowOptions;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.KeyPair;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 import tech.jhipster.config.JHipsterProperties;
 
 class TokenProviderTest {
 
     private static final long ONE_MINUTE = 60000;
 
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
     private Key key;
+    private JwtKeyRing jwtKeyRing;
     private TokenProvider tokenProvider;
 
     @BeforeEach
@@ -36,7 +50,18 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        AuthorityRegistry authorityRegistry = new AuthorityRegistry(mock(AuthorityRepository.class));
+
+        jwtKeyRing = new JwtKeyRing(mock(JwtSigningKeyRepository.class), jHipsterProperties, new ApplicationProperties());
+        tokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                new ApplicationProperties(),
+                securityMetersService,
+                authorityRegistry,
+                jwtKeyRing,
+                new ServerProperties()
+            );
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -88,6 +113,185 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testTokenSyntaxIsCheckedBeforeParsing() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        String[] segments = token.split("\\.");
+
+        assertThat(TokenSyntax.isWellFormed(token, MAX_TOKEN_LENGTH)).isTrue();
+        assertThat(TokenSyntax.isWellFormed(segments[0] + "." + segments[1] + ".", MAX_TOKEN_LENGTH)).isTrue();
+        assertThat(TokenSyntax.isWellFormed(segments[0] + "." + segments[1], MAX_TOKEN_LENGTH)).isFalse();
+        assertThat(TokenSyntax.isWellFormed(token + ".", MAX_TOKEN_LENGTH)).isFalse();
+        assertThat(TokenSyntax.isWellFormed("." + segments[1] + "." + segments[2], MAX_TOKEN_LENGTH)).isFalse();
+        assertThat(TokenSyntax.isWellFormed(segments[0] + ".." + segments[2], MAX_TOKEN_LENGTH)).isFalse();
+        assertThat(TokenSyntax.isWellFormed(segments[0] + "." + segments[1] + "=." + segments[2], MAX_TOKEN_LENGTH)).isFalse();
+        assertThat(TokenSyntax.isWellFormed(segments[0] + "." + segments[1] + "." + segments[2] + "+/", MAX_TOKEN_LENGTH)).isFalse();
+        assertThat(TokenSyntax.isWellFormed("é" + token, MAX_TOKEN_LENGTH)).isFalse();
+        String tooLong = segments[0] + "." + "a".repeat(MAX_TOKEN_LENGTH) + "." + segments[2];
+        assertThat(TokenSyntax.isWellFormed(tooLong, MAX_TOKEN_LENGTH)).isFalse();
+        assertThat(TokenSyntax.isWellFormed(" ", MAX_TOKEN_LENGTH)).isFalse();
+        assertThat(TokenSyntax.isWellFormed(null, MAX_TOKEN_LENGTH)).isFalse();
+    }
+
+    @Test
+    void testTokenLengthIsBoundedByMaxHttpHeaderSize() {
+        assertThat(TokenSyntax.maxLength(new ServerProperties().getMaxHttpHeaderSize())).isEqualTo(8192);
+        assertThat(TokenSyntax.maxLength(DataSize.ofKilobytes(64))).isEqualTo(65536);
+        // Left to Undertow, which then applies its own default
+        assertThat(TokenSyntax.maxLength(DataSize.ofBytes(-1))).isEqualTo(UndertowOptions.DEFAULT_MAX_HEADER_SIZE);
+    }
+
+    @Test
+    void testResolveAuthenticationReusesVerifiedToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication authentication = tokenProvider.resolveAuthentication(token);
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("anonymous");
+        assertThat(authentication.getCredentials()).isEqualTo(token);
+        assertThat(authentication.getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+        // Served from the verified tokens, as a copy of its own for each request
+        assertThat(tokenProvider.resolveAuthentication(token)).isEqualTo(authentication).isNotSameAs(authentication);
+        assertThat(tokenProvider.getAuthentication(token)).isEqualTo(authentication).isNotSameAs(authentication);
+    }
+
+    @Test
+    void testTokensWithSameAuthoritiesShareThem() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        String rememberMeToken = tokenProvider.createToken(createAuthentication(), true);
+
+        GrantedAuthority authority = tokenProvider.resolveAuthentication(token).getAuthorities().iterator().next();
+        assertThat(tokenProvider.resolveAuthentication(rememberMeToken).getAuthorities()).singleElement().isSameAs(authority);
+    }
+
+    @Test
+    void testTokenIsSignedWithCurrentKey() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        String kid = jwtKeyRing.getSigningKey().getKid();
+        JwsHeader<?> header = Jwts
+            .parserBuilder()
+            .setSigningKey(jwtKeyRing.getVerificationKey(kid))
+            .build()
+            .parseClaimsJws(token)
+            .getHeader();
+        assertThat(header.getKeyId()).isEqualTo(kid);
+        assertThat(header.getAlgorithm()).isEqualTo(SignatureAlgorithm.ES256.getValue());
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+    }
+
+    @Test
+    void testReturnFalseWhenJWTKeyIdIsUnknown() {
+        KeyPair otherKeyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String token = Jwts
+            .builder()
+            .setHeaderParam(JwsHeader.KEY_ID, "unknown")
+            .setSubject("anonymous")
+            .claim("auth", AuthoritiesConstants.ADMIN)
+            .signWith(otherKeyPair.getPrivate(), SignatureAlgorithm.ES256)
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
+    @Test
+    void testReturnFalseWhenJWTisSignedWithPublicKeyAsHmacSecret() {
+        String kid = jwtKeyRing.getSigningKey().getKid();
+        Key publicKeyAsSecret = Keys.hmacShaKeyFor(jwtKeyRing.getVerificationKey(kid).getEncoded());
+        String token = Jwts
+            .builder()
+            .setHeaderParam(JwsHeader.KEY_ID, kid)
+            .setSubject("anonymous")
+            .claim("auth", AuthoritiesConstants.ADMIN)
+            .signWith(publicKeyAsSecret, SignatureAlgorithm.HS512)
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
+    @Test
+    void testHmacTokensAreRejectedWhenNoLongerVerified() {
+        String token = Jwts
+            .builder()
+            .setSubject("anonymous")
+            .claim("auth", AuthoritiesConstants.ANONYMOUS)
+            .signWith(key, SignatureAlgorithm.HS512)
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+        ReflectionTestUtils.setField(tokenProvider, "verifyHmacTokens", false);
+
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
+    @Test
+    void testVerifiedTokenIsNotServedOnceExpired() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(4);
+        cache.put("token", createJwtAuthentication("token"), 1000, 0);
+
+        assertThat(cache.get("token", 999)).isNotNull();
+        assertThat(cache.get("token", 1000)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testVerifiedTokenIsServedAsNewAuthentication() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(4);
+        JwtAuthenticationToken authentication = createJwtAuthentication("token");
+        cache.put("token", authentication, 1000, 0);
+
+        JwtAuthenticationToken first = cache.get("token", 10);
+        first.setDetails("first request");
+        JwtAuthenticationToken second = cache.get("token", 10);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getDetails()).isNull();
+        assertThat(second.getName()).isEqualTo(authentication.getName());
+        assertThat(second.getAuthorities()).containsExactlyElementsOf(authentication.getAuthorities());
+        assertThat(second.getCredentials()).isEqualTo("token");
+        assertThat(second.getSessionId()).isEqualTo("session");
+        assertThat(cache.get("other", 10)).isNull();
+    }
+
+    @Test
+    void testVerifiedTokenCacheIsBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(4);
+        cache.put("expired", createJwtAuthentication("expired"), 10, 0);
+        for (int i = 0; i < 10; i++) {
+            cache.put("token" + i, createJwtAuthentication("token" + i), 1000, 20);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(4);
+        assertThat(cache.get("token9", 20)).isNotNull();
+    }
+
+    @Test
+    void testVerifiedTokenCacheEvictsTheTokensExpiringFirst() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(4);
+        cache.put("soon", createJwtAuthentication("soon"), 100, 0);
+        for (int i = 0; i < 4; i++) {
+            cache.put("token" + i, createJwtAuthentication("token" + i), 1000, 0);
+        }
+
+        assertThat(cache.get("soon", 10)).isNull();
+        for (int i = 0; i < 4; i++) {
+            assertThat(cache.get("token" + i, 10)).isNotNull();
+        }
+    }
+
+    @Test
+    void testVerifiedTokenCacheCanBeTurnedOff() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        cache.put("token", createJwtAuthentication("token"), 1000, 0);
+
+        assertThat(cache.get("token", 10)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -96,7 +300,18 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        AuthorityRegistry authorityRegistry = new AuthorityRegistry(mock(AuthorityRepository.class));
+
+        JwtKeyRing jwtKeyRing = new JwtKeyRing(mock(JwtSigningKeyRepository.class), jHipsterProperties, new ApplicationProperties());
+        TokenProvider tokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                new ApplicationProperties(),
+                securityMetersService,
+                authorityRegistry,
+                jwtKeyRing,
+                new ServerProperties()
+            );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,7 +325,18 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        AuthorityRegistry authorityRegistry = new AuthorityRegistry(mock(AuthorityRepository.class));
+
+        JwtKeyRing jwtKeyRing = new JwtKeyRing(mock(JwtSigningKeyRepository.class), jHipsterProperties, new ApplicationProperties());
+        TokenProvider tokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                new ApplicationProperties(),
+                securityMetersService,
+                authorityRegistry,
+                jwtKeyRing,
+                new ServerProperties()
+            );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
@@ -122,6 +348,11 @@ class TokenProviderTest {
         return new UsernamePasswordAuthenticationToken("anonymous", "anonymous", authorities);
     }
 
+    private JwtAuthenticationToken createJwtAuthentication(String token) {
+        Collection<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        return new JwtAuthenticationToken(new User("user", "", authorities), token, authorities, "session");
+    }
+
     private String createUnsupportedToken() {
         return Jwts.builder().setPayload("payload").signWith(key, SignatureAlgorithm.HS512).compact();
     }
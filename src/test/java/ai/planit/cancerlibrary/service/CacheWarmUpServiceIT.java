@@ -0,0 +1,83 @@
+package ai.planit.cancerlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ai.planit.cancerlibrary.IntegrationTest;
+import ai.planit.cancerlibrary.domain.Authority;
+import ai.planit.cancerlibrary.domain.User;
+import ai.planit.cancerlibrary.repository.UserRepository;
+import ai.planit.cancerlibrary.security.AuthoritiesConstants;
+import java.util.Objects;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Integration tests for {@link CacheWarmUpService}.
+ * <p>
+ * They are not transactional, as the warm-up reads the users from its own threads.
+ */
+@IntegrationTest
+class CacheWarmUpServiceIT {
+
+    private static final String NOT_ACTIVATED_LOGIN = "warmup-not-activated";
+
+    @Autowired
+    private CacheWarmUpService cacheWarmUpService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache usersByLogin;
+
+    private Cache usersByEmail;
+
+    @BeforeEach
+    public void setup() {
+        usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        usersByEmail = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        usersByLogin.clear();
+        usersByEmail.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.findOneByLogin(NOT_ACTIVATED_LOGIN).ifPresent(userRepository::delete);
+        usersByLogin.clear();
+        usersByEmail.clear();
+    }
+
+    @Test
+    void assertThatActivatedUsersAreLoadedWithTheirAuthorities() {
+        cacheWarmUpService.warmUp();
+
+        User admin = usersByLogin.get("admin", User.class);
+        assertThat(admin).isNotNull();
+        assertThat(admin.getAuthorities()).extracting(Authority::getName).contains(AuthoritiesConstants.ADMIN);
+        assertThat(usersByEmail.get("admin@localhost", User.class)).extracting(User::getLogin).isEqualTo("admin");
+        assertThat(usersByLogin.get("user", User.class)).isNotNull();
+    }
+
+    @Test
+    void assertThatNotActivatedUsersAreNotLoaded() {
+        User user = new User();
+        user.setLogin(NOT_ACTIVATED_LOGIN);
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setEmail(NOT_ACTIVATED_LOGIN + "@localhost");
+        user.setActivated(false);
+        userRepository.saveAndFlush(user);
+
+        cacheWarmUpService.warmUp();
+
+        assertThat(usersByLogin.get(NOT_ACTIVATED_LOGIN)).isNull();
+        assertThat(usersByEmail.get(NOT_ACTIVATED_LOGIN + "@localhost")).isNull();
+        assertThat(usersByLogin.get("admin")).isNotNull();
+    }
+}
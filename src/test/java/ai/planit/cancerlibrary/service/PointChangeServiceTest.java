@@ -0,0 +1,89 @@
+package ai.planit.cancerlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.service.dto.PointChangeDTO;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+/**
+ * Unit tests for {@link PointChangeService}.
+ */
+class PointChangeServiceTest {
+
+    @Mock
+    private SimpMessageSendingOperations messagingTemplate;
+
+    @SuppressWarnings("unchecked")
+    private final ArgumentCaptor<List<PointChangeDTO>> messageCaptor = ArgumentCaptor.forClass(List.class);
+
+    private PointChangeService pointChangeService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPoint().getChanges().setMaxEvents(3);
+        pointChangeService = new PointChangeService(messagingTemplate, applicationProperties);
+    }
+
+    @Test
+    void assertThatChangesAreCoalesced() {
+        pointChangeService.created(new Point().id(1L).title("A").version(0L));
+        pointChangeService.updated(new Point().id(1L).title("A").description("a").version(1L), true, new Point().description("a"));
+        pointChangeService.updated(new Point().id(2L).title("B").version(3L), true, new Point().title("B"));
+        pointChangeService.updated(new Point().id(2L).title("B").description("b").version(4L), true, new Point().description("b"));
+        pointChangeService.created(new Point().id(3L).title("C").version(0L));
+        pointChangeService.deleted(3L);
+        pointChangeService.updated(new Point().id(4L).title("D").version(1L), false, new Point().title("D"));
+        pointChangeService.deleted(4L);
+        pointChangeService.flush();
+
+        verify(messagingTemplate).convertAndSend(eq(PointChangeService.DESTINATION), messageCaptor.capture());
+        List<PointChangeDTO> changes = messageCaptor.getValue();
+        assertThat(changes)
+            .extracting(PointChangeDTO::getId, PointChangeDTO::getOp, PointChangeDTO::getVersion)
+            .containsExactly(
+                tuple(1L, PointChangeDTO.Operation.CREATED, 1L),
+                tuple(2L, PointChangeDTO.Operation.UPDATED, 4L),
+                tuple(4L, PointChangeDTO.Operation.DELETED, null)
+            );
+        assertThat(changes.get(0).getFields()).containsExactly(Map.entry("title", "A"), Map.entry("description", "a"));
+        assertThat(changes.get(1).getFields()).containsExactly(Map.entry("title", "B"), Map.entry("description", "b"));
+
+        pointChangeService.flush();
+        verify(messagingTemplate, times(1)).convertAndSend(eq(PointChangeService.DESTINATION), any(Object.class));
+    }
+
+    @Test
+    void assertThatTooManyChangesAreSentAsRefresh() {
+        for (long id = 1; id <= 4; id++) {
+            pointChangeService.created(new Point().id(id).title("Point " + id).version(0L));
+        }
+        pointChangeService.flush();
+
+        verify(messagingTemplate).convertAndSend(eq(PointChangeService.DESTINATION), messageCaptor.capture());
+        assertThat(messageCaptor.getValue()).extracting(PointChangeDTO::getOp).containsExactly(PointChangeDTO.Operation.REFRESH);
+    }
+
+    @Test
+    void assertThatNothingIsSentWithoutChanges() {
+        pointChangeService.flush();
+
+        verify(messagingTemplate, never()).convertAndSend(eq(PointChangeService.DESTINATION), any(Object.class));
+    }
+}
@@ -0,0 +1,254 @@
+package ai.planit.cancerlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ai.planit.cancerlibrary.IntegrationTest;
+import ai.planit.cancerlibrary.config.ApplicationProperties;
+import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.repository.PointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Integration tests for {@link PointWriteBehindService}.
+ */
+@IntegrationTest
+class PointWriteBehindServiceIT {
+
+    private static final String TITLE_PREFIX = "Write-behind ";
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PointChangeService pointChangeService;
+
+    @TempDir
+    Path journalDirectory;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    public void cleanup() {
+        pointRepository.deleteAll(writtenPoints());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            entityManager.createNativeQuery("delete from point_journal_checkpoint").executeUpdate()
+        );
+    }
+
+    @Test
+    void assertThatQueuedOperationsAreWritten() {
+        PointWriteBehindService service = createService(10, 2, 50);
+        service.start();
+        service.create(new Point().title(TITLE_PREFIX + "1"));
+        service.create(new Point().title(TITLE_PREFIX + "2"));
+        service.create(new Point().title(TITLE_PREFIX + "3"));
+        service.stop();
+
+        List<Point> points = writtenPoints();
+        assertThat(points)
+            .extracting(Point::getTitle)
+            .containsExactlyInAnyOrder(TITLE_PREFIX + "1", TITLE_PREFIX + "2", TITLE_PREFIX + "3");
+        Point point = points.get(0);
+
+        service = createService(10, 2, 50);
+        service.start();
+        service.update(new Point().id(point.getId()).description("updated"), true, Set.of(point.getVersion()));
+        service.update(new Point().id(point.getId()).description("stale"), true, Set.of(point.getVersion()));
+        service.stop();
+
+        Point testPoint = pointRepository.findById(point.getId()).get();
+        assertThat(testPoint.getTitle()).isEqualTo(point.getTitle());
+        assertThat(testPoint.getDescription()).isEqualTo("updated");
+        assertThat(meterRegistry.get(PointWriteBehindService.OPERATIONS_METER_NAME).tag("result", "applied").counter().count())
+            .isEqualTo(4);
+        assertThat(meterRegistry.get(PointWriteBehindService.OPERATIONS_METER_NAME).tag("result", "rejected").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(PointWriteBehindService.FLUSH_METER_NAME).timer().count()).isPositive();
+    }
+
+    @Test
+    void assertThatFullQueueIsRefused() {
+        PointWriteBehindService service = createService(2, 100, 60000);
+        service.start();
+        service.create(new Point().title(TITLE_PREFIX + "1"));
+        service.create(new Point().title(TITLE_PREFIX + "2"));
+        assertThat(meterRegistry.get(PointWriteBehindService.QUEUE_METER_NAME).gauge().value()).isEqualTo(2);
+
+        assertThatThrownBy(() -> service.create(new Point().title(TITLE_PREFIX + "3"))).isInstanceOf(PointQueueFullException.class);
+
+        service.stop();
+        assertThat(writtenPoints()).hasSize(2);
+        assertThat(meterRegistry.get(PointWriteBehindService.QUEUE_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void assertThatStoppedQueueIsUnavailable() {
+        PointWriteBehindService service = createService(10, 2, 50);
+        service.start();
+        service.stop();
+
+        assertThatThrownBy(() -> service.create(new Point().title(TITLE_PREFIX + "1")))
+            .isInstanceOf(PointWriteBehindUnavailableException.class);
+        assertThat(service.getPhase()).isLessThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    @Test
+    void assertThatJournalIsReplayedAfterCrash() throws Exception {
+        // A journal left by a crash: two accepted operations, the last one torn while it was written
+        PointJournal journal = new PointJournal(journalDirectory, objectMapper);
+        journal.open(0);
+        journal.append(new PointJournal.Entry(1, PointJournal.Operation.CREATE, new Point().title(TITLE_PREFIX + "1"), null));
+        journal.append(new PointJournal.Entry(2, PointJournal.Operation.CREATE, new Point().title(TITLE_PREFIX + "2"), null));
+        journal.close();
+        Files.write(
+            journalDirectory.resolve(PointJournal.FILE_NAME),
+            "{\"sequence\":3,\"operation\":\"CRE".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND
+        );
+
+        PointWriteBehindService service = createService(10, 10, 50);
+        service.start();
+        service.stop();
+        assertThat(writtenPoints()).extracting(Point::getTitle).containsExactlyInAnyOrder(TITLE_PREFIX + "1", TITLE_PREFIX + "2");
+
+        // The checkpoint keeps the replayed operations from being written twice
+        service = createService(10, 10, 50);
+        service.start();
+        service.create(new Point().title(TITLE_PREFIX + "3"));
+        service.stop();
+        assertThat(writtenPoints()).hasSize(3);
+    }
+
+    @Test
+    void assertThatOperationsAcceptedDuringReplayFollowTheTornEntry() throws Exception {
+        PointJournal journal = new PointJournal(journalDirectory, objectMapper);
+        journal.open(0);
+        journal.append(new PointJournal.Entry(1, PointJournal.Operation.CREATE, new Point().title(TITLE_PREFIX + "1"), null));
+        journal.append(new PointJournal.Entry(2, PointJournal.Operation.CREATE, new Point().title(TITLE_PREFIX + "2"), null));
+        journal.close();
+        Files.write(
+            journalDirectory.resolve(PointJournal.FILE_NAME),
+            "{\"sequence\":3,\"operation\":\"CRE".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND
+        );
+
+        // Nothing is flushed before the stop, so the journal is what a crash at this point would leave
+        PointWriteBehindService service = createService(10, 10, 60000);
+        service.start();
+        service.create(new Point().title(TITLE_PREFIX + "3"));
+        List<PointJournal.Entry> entries = new ArrayList<>();
+        new PointJournal(journalDirectory, objectMapper).read(entries::add);
+        assertThat(entries).extracting(PointJournal.Entry::getSequence).containsExactly(1L, 2L, 3L);
+        assertThat(entries.get(2).getPoint().getTitle()).isEqualTo(TITLE_PREFIX + "3");
+        service.stop();
+        assertThat(writtenPoints())
+            .extracting(Point::getTitle)
+            .containsExactlyInAnyOrder(TITLE_PREFIX + "1", TITLE_PREFIX + "2", TITLE_PREFIX + "3");
+
+        service = createService(10, 10, 50);
+        service.start();
+        service.create(new Point().title(TITLE_PREFIX + "4"));
+        service.stop();
+        assertThat(writtenPoints()).hasSize(4);
+    }
+
+    @Test
+    void assertThatInstancesWithTheSameJournalPathHaveTheirOwnCheckpoint() throws Exception {
+        PointWriteBehindService service = createService(10, 10, 50);
+        service.start();
+        service.create(new Point().title(TITLE_PREFIX + "1"));
+        service.create(new Point().title(TITLE_PREFIX + "2"));
+        service.stop();
+
+        // Another instance, configured with the same directory on its own volume, left operations 1 and 2 by a crash
+        Path firstVolume = journalDirectory.resolveSibling(journalDirectory.getFileName() + "-first");
+        Files.move(journalDirectory, firstVolume);
+        PointJournal journal = new PointJournal(journalDirectory, objectMapper);
+        journal.open(0);
+        journal.append(new PointJournal.Entry(1, PointJournal.Operation.CREATE, new Point().title(TITLE_PREFIX + "3"), null));
+        journal.append(new PointJournal.Entry(2, PointJournal.Operation.CREATE, new Point().title(TITLE_PREFIX + "4"), null));
+        journal.sync(2);
+        journal.close();
+
+        service = createService(10, 10, 50);
+        service.start();
+        service.stop();
+        assertThat(writtenPoints()).hasSize(4);
+        FileSystemUtils.deleteRecursively(firstVolume);
+    }
+
+    @Test
+    void assertThatConcurrentOperationsAreAllJournaled() throws Exception {
+        PointWriteBehindService service = createService(1000, 50, 50);
+        service.start();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Void>> submits = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String title = TITLE_PREFIX + i;
+                submits.add(CompletableFuture.runAsync(() -> service.create(new Point().title(title)), executor));
+            }
+            CompletableFuture.allOf(submits.toArray(CompletableFuture[]::new)).get();
+        } finally {
+            executor.shutdown();
+        }
+        service.stop();
+
+        assertThat(writtenPoints()).hasSize(200);
+    }
+
+    private PointWriteBehindService createService(int capacity, int batchSize, long flushIntervalMs) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Point.WriteBehind properties = applicationProperties.getPoint().getWriteBehind();
+        properties.setEnabled(true);
+        properties.setJournalDirectory(journalDirectory.toString());
+        properties.setCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setFlushIntervalMs(flushIntervalMs);
+        return new PointWriteBehindService(
+            applicationProperties,
+            pointRepository,
+            entityManager,
+            transactionManager,
+            objectMapper,
+            pointChangeService,
+            meterRegistry
+        );
+    }
+
+    private List<Point> writtenPoints() {
+        return pointRepository.findAll().stream().filter(p -> p.getTitle().startsWith(TITLE_PREFIX)).collect(Collectors.toList());
+    }
+}
@@ -6,18 +6,25 @@ import static org.mockito.Mockito.when;
 import ai.planit.cancerlibrary.IntegrationTest;
 import ai.planit.cancerlibrary.config.Constants;
 import ai.planit.cancerlibrary.domain.User;
+import ai.planit.cancerlibrary.repository.AuthorityRepository;
 import ai.planit.cancerlibrary.repository.UserRepository;
+import ai.planit.cancerlibrary.security.AuthoritiesConstants;
 import ai.planit.cancerlibrary.service.dto.AdminUserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
@@ -50,9 +57,18 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private DateTimeProvider dateTimeProvider;
 
@@ -166,6 +182,37 @@ class UserServiceIT {
         assertThat(users).isEmpty();
     }
 
+    @Test
+    @Transactional
+    void assertThatNotActivatedUsersAreDeletedInChunks() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        for (int i = 0; i < 5; i++) {
+            User notActivated = new User();
+            notActivated.setLogin("purged" + i);
+            notActivated.setPassword(RandomStringUtils.randomAlphanumeric(60));
+            notActivated.setEmail("purged" + i + "@localhost");
+            notActivated.setActivated(false);
+            notActivated.setActivationKey(RandomStringUtils.random(20));
+            notActivated.setAuthorities(Set.of(authorityRepository.findById(AuthoritiesConstants.USER).orElseThrow()));
+            userRepository.saveAndFlush(notActivated);
+            usersByLogin.put(notActivated.getLogin(), notActivated);
+        }
+        double purged = meterRegistry.get(UserService.PURGED_USERS_METER_NAME).counter().count();
+        long chunks = meterRegistry.get(UserService.PURGE_CHUNKS_METER_NAME).timer().count();
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(now.minus(3, ChronoUnit.DAYS)))
+            .isEmpty();
+        assertThat(usersByLogin.get("purged0")).isNull();
+        assertThat(usersByLogin.get("purged4")).isNull();
+        assertThat(meterRegistry.get(UserService.PURGED_USERS_METER_NAME).counter().count()).isEqualTo(purged + 5);
+        // Three chunks of at most two users, and the empty one ending the purge
+        assertThat(meterRegistry.get(UserService.PURGE_CHUNKS_METER_NAME).timer().count()).isEqualTo(chunks + 4);
+    }
+
     @Test
     @Transactional
     void assertThatNotActivatedUsersWithNullActivationKeyCreatedBefore3DaysAreNotDeleted() {
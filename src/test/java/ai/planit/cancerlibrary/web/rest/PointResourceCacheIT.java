@@ -0,0 +1,131 @@
+package ai.planit.cancerlibrary.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import ai.planit.cancerlibrary.IntegrationTest;
+import ai.planit.cancerlibrary.domain.Point;
+import ai.planit.cancerlibrary.repository.PointRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the second-level cache of the {@link Point} entity behind the {@link PointResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+class PointResourceCacheIT {
+
+    private static final String DEFAULT_TITLE = "AAAAAAAAAA";
+    private static final String UPDATED_TITLE = "BBBBBBBBBB";
+
+    private static final String ENTITY_API_URL_ID = "/api/points/{id}";
+    private static final String ENTITY_API_URL_EXPORT = "/api/points/_export";
+
+    private static final String POINT_CACHE = Point.class.getName();
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc restPointMockMvc;
+
+    private Point point;
+
+    @BeforeEach
+    public void initTest() {
+        point = pointRepository.saveAndFlush(new Point().title(DEFAULT_TITLE));
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        pointRepository.findById(point.getId()).ifPresent(pointRepository::delete);
+    }
+
+    @Test
+    void getPointIsServedFromCache() throws Exception {
+        double hitsBefore = cacheGets("hit");
+
+        restPointMockMvc.perform(get(ENTITY_API_URL_ID, point.getId())).andExpect(status().isOk());
+        assertThat(entityManagerFactory.getCache().contains(Point.class, point.getId())).isTrue();
+
+        restPointMockMvc
+            .perform(get(ENTITY_API_URL_ID, point.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value(DEFAULT_TITLE));
+        assertThat(cacheGets("hit")).isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    void updatePointRefreshesCache() throws Exception {
+        restPointMockMvc.perform(get(ENTITY_API_URL_ID, point.getId())).andExpect(status().isOk());
+
+        restPointMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, point.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new Point().id(point.getId()).title(UPDATED_TITLE)))
+            )
+            .andExpect(status().isOk());
+
+        restPointMockMvc
+            .perform(get(ENTITY_API_URL_ID, point.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value(UPDATED_TITLE));
+    }
+
+    @Test
+    void deletedPointIsNotServedFromCache() throws Exception {
+        restPointMockMvc.perform(get(ENTITY_API_URL_ID, point.getId())).andExpect(status().isOk());
+
+        restPointMockMvc.perform(delete(ENTITY_API_URL_ID, point.getId())).andExpect(status().isNoContent());
+        restPointMockMvc.perform(get(ENTITY_API_URL_ID, point.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void exportDoesNotFillCache() throws Exception {
+        CacheRegionStatistics statistics = entityManagerFactory
+            .unwrap(SessionFactory.class)
+            .getStatistics()
+            .getDomainDataRegionStatistics(POINT_CACHE);
+        long putsBefore = statistics.getPutCount();
+
+        restPointMockMvc.perform(get(ENTITY_API_URL_EXPORT)).andExpect(status().isOk());
+
+        assertThat(statistics.getPutCount()).isEqualTo(putsBefore);
+        assertThat(entityManagerFactory.getCache().contains(Point.class, point.getId())).isFalse();
+    }
+
+    private double cacheGets(String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets").tag("cache", POINT_CACHE).tag("result", result).functionCounter();
+        assertThat(counter).isNotNull();
+        return counter.count();
+    }
+}
@@ -1,6 +1,7 @@
 package ai.planit.cancerlibrary.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -8,14 +9,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import ai.planit.cancerlibrary.IntegrationTest;
 import ai.planit.cancerlibrary.domain.Point;
 import ai.planit.cancerlibrary.repository.PointRepository;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -37,6 +41,8 @@ class PointResourceIT {
 
     private static final String ENTITY_API_URL = "/api/points";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String ENTITY_API_URL_BULK = ENTITY_API_URL + "/_bulk";
+    private static final String ENTITY_SEARCH_API_URL = "/api/_search/points";
 
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -114,6 +120,81 @@ class PointResourceIT {
         assertThat(pointList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createPointWithVersion() throws Exception {
+        point.setVersion(5L);
+
+        int databaseSizeBeforeCreate = pointRepository.findAll().size();
+
+        // The version of a new point is chosen by the database, not by the client
+        restPointMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(point)))
+            .andExpect(status().isBadRequest());
+
+        List<Point> pointList = pointRepository.findAll();
+        assertThat(pointList).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    void createPointsInBulkFromJsonArray() throws Exception {
+        List<Long> existingIds = pointRepository.findAll().stream().map(Point::getId).collect(Collectors.toList());
+        String body =
+            "[" +
+            "{\"title\":\"" + DEFAULT_TITLE + "\",\"description\":\"" + DEFAULT_DESCRIPTION + "\"}," +
+            "{\"title\":\"" + DEFAULT_TITLE + "\"}," +
+            "{\"title\":\"short\"}," +
+            "{\"id\":1,\"title\":\"" + DEFAULT_TITLE + "\"}," +
+            "{\"title\":\"" + DEFAULT_TITLE + "\",\"version\":5}," +
+            "{\"title\":\"" + UPDATED_TITLE + "\",\"description\":\"" + UPDATED_DESCRIPTION + "\"}" +
+            "]";
+
+        try {
+            restPointMockMvc
+                .perform(post(ENTITY_API_URL_BULK).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(6))
+                .andExpect(jsonPath("$.created").value(3))
+                .andExpect(jsonPath("$.errors.[*].row").value(contains(2, 3, 4)));
+
+            List<Point> created = pointRepository
+                .findAll()
+                .stream()
+                .filter(p -> !existingIds.contains(p.getId()))
+                .collect(Collectors.toList());
+            assertThat(created).hasSize(3);
+            assertThat(created).extracting(Point::getTitle).containsOnly(DEFAULT_TITLE, UPDATED_TITLE);
+        } finally {
+            pointRepository.deleteAll(
+                pointRepository.findAll().stream().filter(p -> !existingIds.contains(p.getId())).collect(Collectors.toList())
+            );
+        }
+    }
+
+    @Test
+    void createPointsInBulkFromNdjson() throws Exception {
+        List<Long> existingIds = pointRepository.findAll().stream().map(Point::getId).collect(Collectors.toList());
+        String body =
+            "{\"title\":\"" + DEFAULT_TITLE + "\"}\n" +
+            "{\"title\":{\"nested\":[1,2]}}\n" +
+            "{\"title\":\"" + UPDATED_TITLE + "\"}\n";
+
+        try {
+            restPointMockMvc
+                .perform(post(ENTITY_API_URL_BULK).contentType(MediaType.APPLICATION_NDJSON).content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.errors.[*].row").value(contains(1)));
+
+            assertThat(pointRepository.count()).isEqualTo(existingIds.size() + 2L);
+        } finally {
+            pointRepository.deleteAll(
+                pointRepository.findAll().stream().filter(p -> !existingIds.contains(p.getId())).collect(Collectors.toList())
+            );
+        }
+    }
+
     @Test
     @Transactional
     void checkTitleIsRequired() throws Exception {
@@ -147,6 +228,183 @@ class PointResourceIT {
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)));
     }
 
+    @Test
+    @Transactional
+    void getAllPointsNotModified() throws Exception {
+        // Initialize the database
+        pointRepository.saveAndFlush(point);
+
+        String etag = restPointMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restPointMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Any change of a listed point changes the ETag
+        pointRepository.saveAndFlush(point.title(UPDATED_TITLE));
+
+        restPointMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].title").value(hasItem(UPDATED_TITLE)));
+    }
+
+    @Test
+    @Transactional
+    void getAllPointsWithCursor() throws Exception {
+        // Initialize the database
+        pointRepository.saveAndFlush(point);
+        Point second = pointRepository.saveAndFlush(createEntity(em));
+        Point third = pointRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Read the first slice, then follow the cursor until the last slice
+        String nextCursor = restPointMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andReturn()
+            .getResponse()
+            .getHeader(PointResource.NEXT_CURSOR_HEADER);
+        assertThat(nextCursor).isNotEmpty();
+
+        List<Point> remaining = pointRepository.findAll().stream().filter(p -> p.getId() > point.getId()).collect(Collectors.toList());
+        assertThat(remaining).contains(second, third);
+
+        restPointMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=" + nextCursor + "&size=" + (remaining.size() + 1)))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(PointResource.NEXT_CURSOR_HEADER))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(third.getId().intValue())))
+            .andExpect(jsonPath("$.[*].title").value(hasItem(UPDATED_TITLE)));
+    }
+
+    @Test
+    @Transactional
+    void getAllPointsWithInvalidCursor() throws Exception {
+        restPointMockMvc.perform(get(ENTITY_API_URL + "?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllPointsWithFields() throws Exception {
+        // Initialize the database
+        pointRepository.saveAndFlush(point);
+
+        restPointMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=title"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(point.getId().intValue())))
+            .andExpect(jsonPath("$.[*].title").value(hasItem(DEFAULT_TITLE)))
+            .andExpect(jsonPath("$.[*].description").doesNotExist())
+            .andExpect(jsonPath("$.[*].version").doesNotExist());
+
+        restPointMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=&fields=description,version"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(point.getId().intValue())))
+            .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)))
+            .andExpect(jsonPath("$.[*].title").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllPointsWithUnknownField() throws Exception {
+        restPointMockMvc.perform(get(ENTITY_API_URL + "?fields=title,secret")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void exportPointsAsNdjson() throws Exception {
+        // Initialize the database
+        pointRepository.saveAndFlush(point);
+        int databaseSize = pointRepository.findAll().size();
+
+        String body = restPointMockMvc
+            .perform(get(ENTITY_API_URL + "/_export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(databaseSize);
+        assertThat(lines).contains(
+            "{\"id\":" +
+            point.getId() +
+            ",\"title\":\"" +
+            DEFAULT_TITLE +
+            "\",\"description\":\"" +
+            DEFAULT_DESCRIPTION +
+            "\",\"version\":" +
+            point.getVersion() +
+            "}"
+        );
+    }
+
+    @Test
+    @Transactional
+    void exportPointsAsCsv() throws Exception {
+        // Initialize the database
+        point.setDescription("Quoted \"description\", with a comma");
+        pointRepository.saveAndFlush(point);
+        int databaseSize = pointRepository.findAll().size();
+
+        String body = restPointMockMvc
+            .perform(get(ENTITY_API_URL + "/_export?format=csv"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\r\n");
+        assertThat(lines).hasSize(databaseSize + 1);
+        assertThat(lines[0]).isEqualTo("id,title,description,version");
+        assertThat(lines)
+            .contains(point.getId() + "," + DEFAULT_TITLE + ",\"Quoted \"\"description\"\", with a comma\"," + point.getVersion());
+    }
+
+    @Test
+    @Transactional
+    void exportPointsWithUnsupportedFormat() throws Exception {
+        restPointMockMvc.perform(get(ENTITY_API_URL + "/_export?format=xml")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void searchPoint() throws Exception {
+        // Initialize the database
+        point.setDescription("Lorem ipsum dolor sit amet");
+        pointRepository.saveAndFlush(point);
+        pointRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Search the point
+        restPointMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=IPSUM aaaaaaaaaa"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(contains(point.getId().intValue())))
+            .andExpect(jsonPath("$.[*].title").value(hasItem(DEFAULT_TITLE)));
+
+        restPointMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=ipsum unknown"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
     @Test
     @Transactional
     void getPoint() throws Exception {
@@ -163,6 +421,23 @@ class PointResourceIT {
             .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION));
     }
 
+    @Test
+    @Transactional
+    void getPointNotModified() throws Exception {
+        // Initialize the database
+        pointRepository.saveAndFlush(point);
+
+        restPointMockMvc
+            .perform(get(ENTITY_API_URL_ID, point.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + point.getVersion() + "\""));
+
+        restPointMockMvc
+            .perform(get(ENTITY_API_URL_ID, point.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + point.getVersion() + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
     @Test
     @Transactional
     void getNonExistingPoint() throws Exception {
@@ -200,6 +475,57 @@ class PointResourceIT {
         assertThat(testPoint.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
     }
 
+    @Test
+    @Transactional
+    void putPointWithIfMatch() throws Exception {
+        // Initialize the database
+        pointRepository.saveAndFlush(point);
+        long version = point.getVersion();
+        String etag = "\"" + version + "\"";
+
+        Point updatedPoint = new Point().id(point.getId()).title(UPDATED_TITLE).description(UPDATED_DESCRIPTION);
+
+        restPointMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedPoint.getId())
+                    .header(HttpHeaders.IF_MATCH, etag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedPoint))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+
+        // The same ETag is now stale
+        restPointMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedPoint.getId())
+                    .header(HttpHeaders.IF_MATCH, etag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedPoint.title(DEFAULT_TITLE)))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        Point testPoint = pointRepository.findById(point.getId()).get();
+        assertThat(testPoint.getTitle()).isEqualTo(UPDATED_TITLE);
+    }
+
+    @Test
+    @Transactional
+    void putPointWithStaleVersion() throws Exception {
+        // Initialize the database
+        pointRepository.saveAndFlush(point);
+
+        Point updatedPoint = new Point().id(point.getId()).title(UPDATED_TITLE).version(point.getVersion() + 1);
+
+        restPointMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedPoint.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedPoint))
+            )
+            .andExpect(status().isConflict());
+    }
+
     @Test
     @Transactional
     void putNonExistingPoint() throws Exception {
@@ -286,6 +612,65 @@ class PointResourceIT {
         assertThat(testPoint.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
     }
 
+    @Test
+    @Transactional
+    void patchPointWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        pointRepository.saveAndFlush(point);
+
+        Point partialUpdatedPoint = new Point().id(point.getId()).description(UPDATED_DESCRIPTION);
+
+        restPointMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedPoint.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (point.getVersion() + 1) + "\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedPoint))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        Point testPoint = pointRepository.findById(point.getId()).get();
+        assertThat(testPoint.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
+    }
+
+    @Test
+    @Transactional
+    void patchPointWithStaleVersion() throws Exception {
+        // Initialize the database
+        pointRepository.saveAndFlush(point);
+
+        Point partialUpdatedPoint = new Point().id(point.getId()).description(UPDATED_DESCRIPTION).version(point.getVersion() + 1);
+
+        restPointMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedPoint.getId())
+                    .header(HttpHeaders.IF_MATCH, "*")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedPoint))
+            )
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Transactional
+    void patchPointWithInvalidTitle() throws Exception {
+        // Initialize the database
+        pointRepository.saveAndFlush(point);
+
+        Point partialUpdatedPoint = new Point().id(point.getId()).title("short");
+
+        restPointMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedPoint.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedPoint))
+            )
+            .andExpect(status().isBadRequest());
+
+        Point testPoint = pointRepository.findById(point.getId()).get();
+        assertThat(testPoint.getTitle()).isEqualTo(DEFAULT_TITLE);
+    }
+
     @Test
     @Transactional
     void fullUpdatePointWithPatch() throws Exception {
@@ -1,6 +1,7 @@
 package ai.planit.cancerlibrary.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -8,8 +9,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import ai.planit.cancerlibrary.IntegrationTest;
 import ai.planit.cancerlibrary.domain.Authority;
 import ai.planit.cancerlibrary.domain.User;
+import ai.planit.cancerlibrary.repository.RefreshTokenRepository;
 import ai.planit.cancerlibrary.repository.UserRepository;
 import ai.planit.cancerlibrary.security.AuthoritiesConstants;
+import ai.planit.cancerlibrary.security.jwt.TokenRevocationService;
+import ai.planit.cancerlibrary.service.RefreshTokenService;
 import ai.planit.cancerlibrary.service.dto.AdminUserDTO;
 import ai.planit.cancerlibrary.service.mapper.UserMapper;
 import ai.planit.cancerlibrary.web.rest.vm.ManagedUserVM;
@@ -24,6 +28,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -71,6 +76,15 @@ class UserResourceIT {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Autowired
     private MockMvc restUserMockMvc;
 
@@ -331,6 +345,25 @@ class UserResourceIT {
         });
     }
 
+    @Test
+    @Transactional
+    void updateUserDeactivated() throws Exception {
+        userRepository.saveAndFlush(user);
+        String sessionId = createSession(user);
+
+        AdminUserDTO updatedUser = new AdminUserDTO(user);
+        updatedUser.setActivated(false);
+
+        restUserMockMvc
+            .perform(
+                put("/api/admin/users").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(updatedUser))
+            )
+            .andExpect(status().isOk());
+
+        assertThat(tokenRevocationService.isRevoked(sessionId)).isTrue();
+        assertThat(refreshTokenRepository.findSessionIdsByLoginIn(List.of(user.getLogin()))).isEmpty();
+    }
+
     @Test
     @Transactional
     void updateUserLogin() throws Exception {
@@ -468,6 +501,7 @@ class UserResourceIT {
         // Initialize the database
         userRepository.saveAndFlush(user);
         int databaseSizeBeforeDelete = userRepository.findAll().size();
+        String sessionId = createSession(user);
 
         // Delete the user
         restUserMockMvc
@@ -478,6 +512,239 @@ class UserResourceIT {
 
         // Validate the database is empty
         assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeDelete - 1));
+        assertThat(tokenRevocationService.isRevoked(sessionId)).isTrue();
+    }
+
+    @Test
+    @Transactional
+    void createUsers() throws Exception {
+        int databaseSizeBeforeCreate = userRepository.findAll().size();
+
+        AdminUserDTO first = createAdminUserDTO(DEFAULT_LOGIN, DEFAULT_EMAIL, Set.of(AuthoritiesConstants.USER));
+        AdminUserDTO second = createAdminUserDTO(
+            UPDATED_LOGIN,
+            UPDATED_EMAIL,
+            Set.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)
+        );
+
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(first, second)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-cancerLibraryApp-alert", "userManagement.bulkCreated"))
+            .andExpect(jsonPath("$.[*].login").value(containsInAnyOrder(DEFAULT_LOGIN, UPDATED_LOGIN)));
+
+        assertPersistedUsers(users -> {
+            assertThat(users).hasSize(databaseSizeBeforeCreate + 2);
+            User testUser = users.stream().filter(usr -> UPDATED_LOGIN.equals(usr.getLogin())).findFirst().get();
+            assertThat(testUser.isActivated()).isTrue();
+            assertThat(testUser.getAuthorities())
+                .extracting(Authority::getName)
+                .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+        });
+    }
+
+    @Test
+    @Transactional
+    void createUsersWithExistingLogin() throws Exception {
+        userRepository.saveAndFlush(user);
+        int databaseSizeBeforeCreate = userRepository.findAll().size();
+
+        AdminUserDTO newUser = createAdminUserDTO(UPDATED_LOGIN, UPDATED_EMAIL, Set.of(AuthoritiesConstants.USER));
+        AdminUserDTO existingLogin = createAdminUserDTO(DEFAULT_LOGIN, "anothermail@localhost", Set.of(AuthoritiesConstants.USER));
+
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(newUser, existingLogin)))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeCreate));
+    }
+
+    @Test
+    @Transactional
+    void createUsersWithDuplicateEmail() throws Exception {
+        int databaseSizeBeforeCreate = userRepository.findAll().size();
+
+        AdminUserDTO first = createAdminUserDTO(DEFAULT_LOGIN, DEFAULT_EMAIL, Set.of(AuthoritiesConstants.USER));
+        AdminUserDTO second = createAdminUserDTO(UPDATED_LOGIN, DEFAULT_EMAIL.toUpperCase(), Set.of(AuthoritiesConstants.USER));
+
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(first, second)))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeCreate));
+    }
+
+    @Test
+    @Transactional
+    void createUsersWithInvalidUser() throws Exception {
+        AdminUserDTO invalidUser = createAdminUserDTO("invalid login!", UPDATED_EMAIL, Set.of(AuthoritiesConstants.USER));
+
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(invalidUser)))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void createOrUpdateNoUsers() throws Exception {
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(List.of()))
+            )
+            .andExpect(status().isBadRequest());
+        restUserMockMvc
+            .perform(
+                put("/api/admin/users/_bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(List.of()))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void updateUsers() throws Exception {
+        user.setAuthorities(new HashSet<>(Set.of(em.find(Authority.class, AuthoritiesConstants.USER))));
+        userRepository.saveAndFlush(user);
+        User anotherUser = createEntity(em);
+        userRepository.saveAndFlush(anotherUser);
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).put(user.getLogin(), user);
+
+        AdminUserDTO updatedUser = new AdminUserDTO(user);
+        updatedUser.setFirstName(UPDATED_FIRSTNAME);
+        updatedUser.setAuthorities(Set.of(AuthoritiesConstants.ADMIN));
+        AdminUserDTO updatedAnotherUser = new AdminUserDTO(anotherUser);
+        updatedAnotherUser.setLogin(UPDATED_LOGIN);
+        updatedAnotherUser.setActivated(false);
+        String userSessionId = createSession(user);
+        String anotherUserSessionId = createSession(anotherUser);
+        AdminUserDTO unknownUser = createAdminUserDTO("unknown", "unknown@localhost", Set.of());
+        unknownUser.setId(Long.MAX_VALUE);
+
+        restUserMockMvc
+            .perform(
+                put("/api/admin/users/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(updatedUser, updatedAnotherUser, unknownUser)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].login").value(containsInAnyOrder(DEFAULT_LOGIN, UPDATED_LOGIN)));
+
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get(user.getLogin())).isNull();
+        assertPersistedUsers(users -> {
+            User testUser = users.stream().filter(usr -> usr.getId().equals(user.getId())).findFirst().get();
+            assertThat(testUser.getFirstName()).isEqualTo(UPDATED_FIRSTNAME);
+            assertThat(testUser.getAuthorities()).extracting(Authority::getName).containsExactly(AuthoritiesConstants.ADMIN);
+            User testAnotherUser = users.stream().filter(usr -> usr.getId().equals(anotherUser.getId())).findFirst().get();
+            assertThat(testAnotherUser.getLogin()).isEqualTo(UPDATED_LOGIN);
+            assertThat(testAnotherUser.isActivated()).isFalse();
+        });
+        assertThat(tokenRevocationService.isRevoked(userSessionId)).isFalse();
+        assertThat(tokenRevocationService.isRevoked(anotherUserSessionId)).isTrue();
+    }
+
+    @Test
+    @Transactional
+    void updateUsersExistingEmail() throws Exception {
+        userRepository.saveAndFlush(user);
+        User anotherUser = createEntity(em);
+        userRepository.saveAndFlush(anotherUser);
+
+        AdminUserDTO updatedUser = new AdminUserDTO(user);
+        updatedUser.setEmail(anotherUser.getEmail());
+
+        restUserMockMvc
+            .perform(
+                put("/api/admin/users/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(updatedUser)))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void deactivateUsers() throws Exception {
+        userRepository.saveAndFlush(user);
+        User anotherUser = createEntity(em);
+        userRepository.saveAndFlush(anotherUser);
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).put(user.getLogin(), user);
+        String sessionId = createSession(user);
+
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_bulk/deactivate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(user.getLogin().toUpperCase(), anotherUser.getLogin(), "unknown")))
+            )
+            .andExpect(status().isNoContent())
+            .andExpect(header().string("X-cancerLibraryApp-params", "2"));
+
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get(user.getLogin())).isNull();
+        assertPersistedUsers(users ->
+            assertThat(users)
+                .filteredOn(usr -> usr.getId().equals(user.getId()) || usr.getId().equals(anotherUser.getId()))
+                .extracting(User::isActivated)
+                .containsExactly(false, false)
+        );
+        assertThat(tokenRevocationService.isRevoked(sessionId)).isTrue();
+        assertThat(refreshTokenRepository.findSessionIdsByLoginIn(List.of(user.getLogin()))).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void deactivateNoUsers() throws Exception {
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_bulk/deactivate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of()))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void deactivateNullUser() throws Exception {
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_bulk/deactivate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[\"" + DEFAULT_LOGIN + "\", null]")
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.usernull"));
+    }
+
+    @Test
+    @Transactional
+    void deactivateTooManyUsers() throws Exception {
+        List<String> logins = new ArrayList<>();
+        for (int i = 0; i <= 10; i++) {
+            logins.add(DEFAULT_LOGIN + i);
+        }
+
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_bulk/deactivate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(logins))
+            )
+            .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -576,6 +843,28 @@ class UserResourceIT {
         assertThat(authorityA).isEqualTo(authorityB).hasSameHashCodeAs(authorityB);
     }
 
+    private static AdminUserDTO createAdminUserDTO(String login, String email, Set<String> authorities) {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(login);
+        userDTO.setFirstName(DEFAULT_FIRSTNAME);
+        userDTO.setLastName(DEFAULT_LASTNAME);
+        userDTO.setEmail(email);
+        userDTO.setImageUrl(DEFAULT_IMAGEURL);
+        userDTO.setLangKey(DEFAULT_LANGKEY);
+        userDTO.setAuthorities(authorities);
+        return userDTO;
+    }
+
+    /**
+     * Open a session for the user.
+     *
+     * @return the id of the session.
+     */
+    private String createSession(User user) {
+        refreshTokenService.createSession(new UsernamePasswordAuthenticationToken(user.getLogin(), null, List.of()), false);
+        return refreshTokenRepository.findSessionIdsByLoginIn(List.of(user.getLogin())).get(0);
+    }
+
     private void assertPersistedUsers(Consumer<List<User>> userAssertion) {
         userAssertion.accept(userRepository.findAll());
     }